@@ -2,8 +2,10 @@ package fr.ght1pc9kc.testy.core.extensions;
 
 import org.junit.jupiter.api.extension.AfterAllCallback;
 import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
 import org.junit.jupiter.api.extension.BeforeAllCallback;
 import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
 import org.junit.jupiter.api.extension.Extension;
 import org.junit.jupiter.api.extension.ExtensionContext;
 import org.junit.jupiter.api.extension.ParameterContext;
@@ -11,7 +13,13 @@ import org.junit.jupiter.api.extension.ParameterResolutionException;
 import org.junit.jupiter.api.extension.ParameterResolver;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Allow to given an order to the Registered extensions.
@@ -39,18 +47,43 @@ import java.util.List;
  *             .append(wEntity)
  *             .register();
  * </pre>
+ *
+ * <p>
+ * Independent chains, for instance one per database catalog, can run their {@code BeforeAll} callbacks concurrently
+ * with {@link #concurrent(Extension, Extension...)}. The other callbacks are still run in the order of the declaration.
+ * </p>
+ *
+ * <pre style="code">
+ *     {@literal @}RegisterExtension
+ *     static ChainedExtension wChained = ChainedExtension
+ *             .outer(ChainedExtension.concurrent(
+ *                     ChainedExtension.outer(wLegacyDatasource).append(wLegacyDatabase).register(),
+ *                     ChainedExtension.outer(wNoraDatasource).append(wNoraDatabase).register()))
+ *             .append(wLegacyContext)
+ *             .append(wNoraContext)
+ *             .register();
+ * </pre>
  */
 public final class ChainedExtension implements
-        BeforeAllCallback, AfterAllCallback, BeforeEachCallback, AfterEachCallback, ParameterResolver {
+        BeforeAllCallback, AfterAllCallback, BeforeEachCallback, AfterEachCallback,
+        BeforeTestExecutionCallback, AfterTestExecutionCallback, ParameterResolver {
+
+    private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
 
     private final Extension[] extensions;
+    private final boolean concurrent;
 
-    private ChainedExtension(List<Extension> extensions) {
+    private ChainedExtension(List<Extension> extensions, boolean concurrent) {
         this.extensions = extensions.toArray(new Extension[0]);
+        this.concurrent = concurrent;
     }
 
     @Override
     public void beforeAll(ExtensionContext context) throws Exception {
+        if (concurrent) {
+            beforeAllConcurrently(context);
+            return;
+        }
         for (Extension ex : extensions) {
             if (ex instanceof BeforeAllCallback callback) {
                 callback.beforeAll(context);
@@ -58,6 +91,52 @@ public final class ChainedExtension implements
         }
     }
 
+    /**
+     * Run each {@code BeforeAll} callback in its own thread and wait for all of them, even when one fails.
+     * The first failure is thrown, with the failures of the other extensions as suppressed exceptions.
+     */
+    private void beforeAllConcurrently(ExtensionContext context) throws Exception {
+        List<BeforeAllCallback> callbacks = Arrays.stream(extensions)
+                .filter(BeforeAllCallback.class::isInstance)
+                .map(BeforeAllCallback.class::cast)
+                .toList();
+        if (callbacks.isEmpty()) {
+            return;
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(callbacks.size(), r -> {
+            Thread thread = new Thread(r, "testy-before-all-" + THREAD_COUNTER.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<?>> futures = callbacks.stream()
+                    .<Future<?>>map(callback -> executor.submit(() -> {
+                        callback.beforeAll(context);
+                        return null;
+                    }))
+                    .toList();
+            Throwable failure = null;
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    if (failure == null) {
+                        failure = e.getCause();
+                    } else {
+                        failure.addSuppressed(e.getCause());
+                    }
+                }
+            }
+            if (failure instanceof Exception e) {
+                throw e;
+            } else if (failure instanceof Error e) {
+                throw e;
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
     @Override
     public void afterAll(ExtensionContext context) throws Exception {
         for (int i = extensions.length - 1; i >= 0; i--) {
@@ -87,6 +166,25 @@ public final class ChainedExtension implements
         }
     }
 
+    @Override
+    public void beforeTestExecution(ExtensionContext context) throws Exception {
+        for (Extension ex : extensions) {
+            if (ex instanceof BeforeTestExecutionCallback callback) {
+                callback.beforeTestExecution(context);
+            }
+        }
+    }
+
+    @Override
+    public void afterTestExecution(ExtensionContext context) throws Exception {
+        for (int i = extensions.length - 1; i >= 0; i--) {
+            Extension ex = extensions[i];
+            if (ex instanceof AfterTestExecutionCallback callback) {
+                callback.afterTestExecution(context);
+            }
+        }
+    }
+
     @Override
     public boolean supportsParameter(ParameterContext parameterContext, ExtensionContext extensionContext) {
         for (Extension ex : extensions) {
@@ -118,13 +216,35 @@ public final class ChainedExtension implements
             }
         }
 
-        return new ParameterResolutionException("Unable to resolve parameter !", lastException);
+        throw new ParameterResolutionException("Unable to resolve parameter !", lastException);
     }
 
     public static ChainedExtensionBuilder outer(Extension ex) {
         return new ChainedExtensionBuilder(ex);
     }
 
+    /**
+     * Group independent extensions, whose {@code BeforeAll} callbacks are run concurrently, each in its own thread.
+     * <p>
+     * The {@code BeforeAll} of the group ends when all the extensions are initialized. If some of them fail, the
+     * first failure is thrown with the others attached as suppressed exceptions. All the other callbacks are run
+     * in the order of the declaration, as with {@link #outer(Extension)}.
+     * </p>
+     * <p>
+     * The grouped extensions must not depend on each other, and must only share thread-safe resources.
+     * </p>
+     *
+     * @param first  The first extension of the group
+     * @param others The other extensions of the group
+     * @return The group, to register or to chain with other extensions
+     */
+    public static ChainedExtension concurrent(Extension first, Extension... others) {
+        List<Extension> group = new ArrayList<>(others.length + 1);
+        group.add(first);
+        group.addAll(Arrays.asList(others));
+        return new ChainedExtension(group, true);
+    }
+
     public static class ChainedExtensionBuilder {
         private final List<Extension> extensions = new ArrayList<>();
 
@@ -138,7 +258,7 @@ public final class ChainedExtension implements
         }
 
         public ChainedExtension register() {
-            return new ChainedExtension(extensions);
+            return new ChainedExtension(extensions, false);
         }
     }
 }
@@ -0,0 +1,69 @@
+package fr.ght1pc9kc.testy.core.extensions;
+
+import fr.ght1pc9kc.testy.core.dummy.Dummy;
+import fr.ght1pc9kc.testy.core.dummy.DummyExtension;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ChainedExtensionConcurrentTest {
+
+    private static final List<String> calls = Collections.synchronizedList(new ArrayList<>());
+    private static final CyclicBarrier barrier = new CyclicBarrier(2);
+
+    private static final DummyExtension wDummy = new DummyExtension(calls, "dummy", new Dummy("off", "rab"));
+
+    @RegisterExtension
+    static ChainedExtension tested = ChainedExtension
+            .outer(ChainedExtension.concurrent(
+                    ChainedExtension.outer(awaiting("first")).append(wDummy).register(),
+                    awaiting("second")))
+            .append((BeforeAllCallback) context -> calls.add("last_beforeAll"))
+            .register();
+
+    private static BeforeAllCallback awaiting(String id) {
+        return context -> {
+            // Both callbacks must be running at the same time to pass the barrier
+            barrier.await(5, TimeUnit.SECONDS);
+            calls.add(id + "_beforeAll");
+        };
+    }
+
+    @Test
+    void should_run_before_all_concurrently(Dummy dummy) {
+        assertThat(dummy.foo).isEqualTo("off");
+        assertThat(calls.subList(0, 4)).containsExactlyInAnyOrder(
+                "first_beforeAll", "dummy_beforeAll", "second_beforeAll", "last_beforeAll");
+        assertThat(calls.indexOf("first_beforeAll")).isLessThan(calls.indexOf("dummy_beforeAll"));
+        assertThat(calls.get(3)).isEqualTo("last_beforeAll");
+    }
+
+    @Test
+    void should_aggregate_failures() {
+        ChainedExtension failing = ChainedExtension.concurrent(
+                (BeforeAllCallback) context -> {
+                    throw new IllegalStateException("legacy failed");
+                },
+                (BeforeAllCallback) context -> calls.add("ok_beforeAll"),
+                (BeforeAllCallback) context -> {
+                    throw new IllegalStateException("nora failed");
+                });
+
+        assertThatThrownBy(() -> failing.beforeAll(null))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("legacy failed")
+                .satisfies(e -> assertThat(e.getSuppressed())
+                        .extracting(Throwable::getMessage)
+                        .containsExactly("nora failed"));
+        assertThat(calls).contains("ok_beforeAll");
+    }
+}
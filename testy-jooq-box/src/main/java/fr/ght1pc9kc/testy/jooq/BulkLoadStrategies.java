@@ -0,0 +1,129 @@
+package fr.ght1pc9kc.testy.jooq;
+
+import lombok.experimental.UtilityClass;
+import org.jooq.DSLContext;
+import org.jooq.Field;
+import org.jooq.Loader;
+import org.jooq.LoaderError;
+import org.jooq.Name;
+import org.jooq.Table;
+import org.jooq.TableRecord;
+import org.jooq.exception.DataAccessException;
+import org.jooq.impl.DSL;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Implementations of the {@link BulkLoadStrategy} factories.
+ */
+@UtilityClass
+class BulkLoadStrategies {
+    static final int DEFAULT_CHUNK_SIZE = 1_000;
+
+    static final BulkLoadStrategy BY_ROW_COUNT = (dsl, table, records) -> {
+        if (records.size() <= BulkLoadStrategy.JDBC_BATCH_MAX_ROWS) {
+            jdbcBatch(dsl, table, records);
+        } else {
+            multiRowInsert(dsl, table, records, DEFAULT_CHUNK_SIZE);
+        }
+    };
+
+    void jdbcBatch(DSLContext dsl, Table<?> table, List<? extends TableRecord<?>> records) {
+        records.forEach(r -> r.changed(true));
+        dsl.batchInsert(records).execute();
+    }
+
+    void multiRowInsert(DSLContext dsl, Table<?> table, List<? extends TableRecord<?>> records, int chunkSize) {
+        for (int from = 0; from < records.size(); from += chunkSize) {
+            List<? extends TableRecord<?>> chunk = records.subList(from, Math.min(records.size(), from + chunkSize));
+            dsl.insertInto(table, table.fields()).valuesOfRecords(chunk).execute();
+        }
+    }
+
+    void loader(DSLContext dsl, Table<?> table, List<? extends TableRecord<?>> records,
+                int bulkSize, int batchSize, int commitSize) {
+        var options = dsl.loadInto(table).onErrorAbort().bulkAfter(bulkSize).batchAfter(batchSize);
+        var commitOptions = (commitSize == 0) ? options.commitNone() : options.commitAfter(commitSize);
+        Loader<?> loader;
+        try {
+            loader = commitOptions.loadRecords(records).fields(table.fields()).execute();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        List<LoaderError> errors = loader.errors();
+        if (!errors.isEmpty()) {
+            throw new DataAccessException("Unable to load " + table.getName() + " row " + errors.get(0).rowIndex(),
+                    errors.get(0).exception());
+        }
+    }
+
+    void csvDirect(DSLContext dsl, Table<?> table, List<? extends TableRecord<?>> records) {
+        Path csv = null;
+        try {
+            csv = Files.createTempFile("testy-" + table.getName() + "-", ".csv");
+            writeCsv(csv, table.fields(), records);
+            insertCsv(dsl, table, csv.toString());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            deleteQuietly(csv);
+        }
+    }
+
+    /**
+     * Insert the content of a CSV file, with a header line and the columns in the order of the table fields.
+     *
+     * @param dsl      The DSL of the reload transaction
+     * @param table    The filled table
+     * @param fileName The H2 file name of the CSV file
+     */
+    void insertCsv(DSLContext dsl, Table<?> table, String fileName) {
+        List<Name> columns = Arrays.stream(table.fields()).map(f -> DSL.name(f.getName())).toList();
+        dsl.execute("INSERT INTO {0} ({1}) DIRECT SELECT * FROM CSVREAD({2}, NULL, {3})",
+                table, DSL.list(columns), DSL.inline(fileName), DSL.inline("charset=UTF-8"));
+    }
+
+    private static void writeCsv(Path csv, Field<?>[] fields, List<? extends TableRecord<?>> records)
+            throws IOException {
+        try (Writer writer = Files.newBufferedWriter(csv, StandardCharsets.UTF_8)) {
+            writer.write(Arrays.stream(fields).map(f -> quote(f.getName())).collect(Collectors.joining(",")));
+            writer.write('\n');
+            for (TableRecord<?> rec : records) {
+                for (int i = 0; i < fields.length; i++) {
+                    if (i > 0) {
+                        writer.write(',');
+                    }
+                    Object value = rec.get(i);
+                    if (value != null) {
+                        // Empty unquoted values are read as NULL
+                        writer.write(quote(value.toString()));
+                    }
+                }
+                writer.write('\n');
+            }
+        }
+    }
+
+    private static String quote(String value) {
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    static void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ignore) {
+            // temporary file, removed by the system anyway
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package fr.ght1pc9kc.testy.jooq;
+
+import org.jooq.DSLContext;
+import org.jooq.Table;
+import org.jooq.TableRecord;
+
+import java.util.List;
+
+/**
+ * Insert the records of a data set into their table.
+ * <p>
+ * Used by {@link WithSampleDataLoaded} to load each data set. The strategies are called inside the reload
+ * transaction and must not commit.
+ *
+ * <pre><code>
+ * WithSampleDataLoaded.builder(wDslContext)
+ *         .addDataset(UsersRecordSamples.SAMPLE)                                       // strategy chosen by row count
+ *         .addDataset(EventsRecordSamples.SAMPLE, BulkLoadStrategy.multiRowInsert(500))
+ *         .build();
+ * </code></pre>
+ */
+@FunctionalInterface
+public interface BulkLoadStrategy {
+    /**
+     * Row count up to which {@link #byRowCount()} uses the JDBC batch.
+     */
+    int JDBC_BATCH_MAX_ROWS = 20;
+
+    /**
+     * Insert the records.
+     *
+     * @param dsl     The DSL of the reload transaction
+     * @param table   The table of the records
+     * @param records The records to insert, all from the given table
+     */
+    void insert(DSLContext dsl, Table<?> table, List<? extends TableRecord<?>> records);
+
+    /**
+     * One JDBC batch entry per record, with {@link DSLContext#batchInsert(TableRecord[])}.
+     *
+     * @return the strategy
+     */
+    static BulkLoadStrategy jdbcBatch() {
+        return BulkLoadStrategies::jdbcBatch;
+    }
+
+    /**
+     * {@code INSERT INTO ... VALUES (...), (...)} statements of at most {@code chunkSize} rows.
+     *
+     * @param chunkSize The maximum number of rows per statement
+     * @return the strategy
+     */
+    static BulkLoadStrategy multiRowInsert(int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("The chunk size must be positive !");
+        }
+        return (dsl, table, records) -> BulkLoadStrategies.multiRowInsert(dsl, table, records, chunkSize);
+    }
+
+    /**
+     * The jOOQ {@link org.jooq.Loader} API.
+     *
+     * @param bulkSize   The number of rows per statement
+     * @param batchSize  The number of statements per JDBC batch
+     * @param commitSize The number of batches between two commits, {@code 0} to let the reload transaction commit
+     * @return the strategy
+     */
+    static BulkLoadStrategy loader(int bulkSize, int batchSize, int commitSize) {
+        if (bulkSize <= 0 || batchSize <= 0 || commitSize < 0) {
+            throw new IllegalArgumentException("Invalid loader sizes !");
+        }
+        return (dsl, table, records) -> BulkLoadStrategies.loader(dsl, table, records, bulkSize, batchSize, commitSize);
+    }
+
+    /**
+     * Write the records in a temporary CSV file and load it with H2 {@code INSERT ... DIRECT SELECT ... CSVREAD}.
+     * <p>
+     * The fastest for very large tables. The values are written with their string representation, binary and
+     * other complex types are not supported. Never chosen by {@link #byRowCount()}, it must be set explicitly.
+     *
+     * @return the strategy
+     */
+    static BulkLoadStrategy csvDirect() {
+        return BulkLoadStrategies::csvDirect;
+    }
+
+    /**
+     * Choose the strategy from the number of records: {@link #jdbcBatch()} up to {@value #JDBC_BATCH_MAX_ROWS} rows,
+     * {@link #multiRowInsert(int)} above. Both bind the values with their jOOQ types.
+     * <p>
+     * Always the same instance, the data sets of a table inserted with it are merged before the insertion.
+     *
+     * @return the strategy
+     */
+    static BulkLoadStrategy byRowCount() {
+        return BulkLoadStrategies.BY_ROW_COUNT;
+    }
+}
@@ -0,0 +1,210 @@
+package fr.ght1pc9kc.testy.jooq;
+
+import fr.ght1pc9kc.testy.jooq.model.StressReport;
+import org.h2.api.ErrorCode;
+import org.jooq.DSLContext;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+/**
+ * Run a test body from many threads at once against the same {@link DSLContext}, and measure it.
+ * <p>
+ * Injected by {@link WithConcurrencyStress}. The threads are started together, each one runs the body for the
+ * configured number of iterations. While running, a sampler reads the H2 {@code INFORMATION_SCHEMA.SESSIONS} to count
+ * the sessions waiting for a lock.
+ *
+ * <pre><code>
+ * {@literal @}Test
+ * void should_book_seats_concurrently(ConcurrencyStress stress) {
+ *     StressReport report = stress.run((dsl, worker) -> bookingRepository.book(dsl, worker));
+ *
+ *     assertThat(report.failures).isZero();
+ *     assertThat(report.p99).isLessThan(Duration.ofMillis(50));
+ * }
+ * </code></pre>
+ */
+public final class ConcurrencyStress {
+    private static final String SQL_BLOCKED_SESSIONS =
+            "SELECT COUNT(*) FROM INFORMATION_SCHEMA.SESSIONS WHERE BLOCKER_ID IS NOT NULL";
+
+    private final DSLContext dsl;
+    private final DataSource dataSource;
+    private final int threads;
+    private final int iterations;
+    private final ThreadFactory threadFactory;
+    private final Duration samplingInterval;
+
+    ConcurrencyStress(DSLContext dsl, DataSource dataSource, int threads, int iterations,
+                      ThreadFactory threadFactory, Duration samplingInterval) {
+        this.dsl = dsl;
+        this.dataSource = dataSource;
+        this.threads = threads;
+        this.iterations = iterations;
+        this.threadFactory = threadFactory;
+        this.samplingInterval = samplingInterval;
+    }
+
+    /**
+     * Body run concurrently.
+     */
+    @FunctionalInterface
+    public interface Action {
+        /**
+         * @param dsl    The {@link DSLContext} shared by all the threads
+         * @param worker The index of the running thread, from {@code 0}
+         * @throws Exception on failure, counted in the report as any {@link Error} thrown
+         */
+        void execute(DSLContext dsl, int worker) throws Exception;
+    }
+
+    /**
+     * Run the body from all the threads at once and wait for the end of all the iterations.
+     *
+     * @param action The body to run
+     * @return The measures of the run
+     * @throws InterruptedException if interrupted while waiting for the threads
+     */
+    public StressReport run(Action action) throws InterruptedException {
+        long[][] latencies = new long[threads][iterations];
+        int[] ran = new int[threads];
+        AtomicInteger failures = new AtomicInteger();
+        AtomicInteger lockTimeouts = new AtomicInteger();
+        AtomicInteger deadlocks = new AtomicInteger();
+        AtomicReference<Throwable> firstError = new AtomicReference<>();
+        CountDownLatch ready = new CountDownLatch(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+
+        List<Thread> workers = new ArrayList<>(threads);
+        for (int w = 0; w < threads; w++) {
+            final int worker = w;
+            workers.add(threadFactory.newThread(() -> {
+                try {
+                    ready.countDown();
+                    start.await();
+                    for (int i = 0; i < iterations; i++) {
+                        long begin = System.nanoTime();
+                        try {
+                            action.execute(dsl, worker);
+                        } catch (Throwable e) {
+                            failures.incrementAndGet();
+                            firstError.compareAndSet(null, e);
+                            switch (sqlErrorCode(e)) {
+                                case ErrorCode.LOCK_TIMEOUT_1 -> lockTimeouts.incrementAndGet();
+                                case ErrorCode.DEADLOCK_1 -> deadlocks.incrementAndGet();
+                                default -> {
+                                    // other failures are only counted
+                                }
+                            }
+                        }
+                        latencies[worker][i] = System.nanoTime() - begin;
+                        ran[worker] = i + 1;
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            }));
+        }
+        workers.forEach(Thread::start);
+
+        LockSampler sampler = new LockSampler();
+        Thread samplerThread = new Thread(sampler, "testy-lock-sampler");
+        samplerThread.setDaemon(true);
+
+        ready.await();
+        samplerThread.start();
+        long begin = System.nanoTime();
+        start.countDown();
+        done.await();
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - begin);
+        sampler.running.set(false);
+        samplerThread.join(TimeUnit.SECONDS.toMillis(1));
+
+        // Only the operations which ran, a worker may have been interrupted before the end of its iterations
+        long[] sorted = IntStream.range(0, threads)
+                .mapToObj(w -> Arrays.stream(latencies[w], 0, ran[w]))
+                .flatMapToLong(Function.identity())
+                .sorted().toArray();
+        return StressReport.builder()
+                .threads(threads)
+                .operations(sorted.length)
+                .failures(failures.get())
+                .lockTimeouts(lockTimeouts.get())
+                .deadlocks(deadlocks.get())
+                .firstError(firstError.get())
+                .elapsed(elapsed)
+                .throughput(sorted.length * 1e9 / Math.max(1, elapsed.toNanos()))
+                .p50(percentile(sorted, 50))
+                .p95(percentile(sorted, 95))
+                .p99(percentile(sorted, 99))
+                .max(Duration.ofNanos(sorted.length == 0 ? 0 : sorted[sorted.length - 1]))
+                .lockWaitSamples(sampler.lockWaitSamples)
+                .maxBlockedSessions(sampler.maxBlockedSessions)
+                .build();
+    }
+
+    private static Duration percentile(long[] sorted, int percentile) {
+        if (sorted.length == 0) {
+            return Duration.ZERO;
+        }
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return Duration.ofNanos(sorted[Math.max(0, index)]);
+    }
+
+    private static int sqlErrorCode(Throwable error) {
+        for (Throwable t = error; t != null; t = t.getCause()) {
+            if (t instanceof SQLException sqlException) {
+                return sqlException.getErrorCode();
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Count the sessions waiting for a lock, on its own connection, until stopped.
+     */
+    private final class LockSampler implements Runnable {
+        private final AtomicBoolean running = new AtomicBoolean(true);
+        private volatile int lockWaitSamples;
+        private volatile int maxBlockedSessions;
+
+        @Override
+        public void run() {
+            try (Connection connection = dataSource.getConnection();
+                 Statement statement = connection.createStatement()) {
+                while (running.get()) {
+                    try (ResultSet rs = statement.executeQuery(SQL_BLOCKED_SESSIONS)) {
+                        int blocked = rs.next() ? rs.getInt(1) : 0;
+                        if (blocked > 0) {
+                            lockWaitSamples++;
+                            maxBlockedSessions = Math.max(maxBlockedSessions, blocked);
+                        }
+                    }
+                    TimeUnit.NANOSECONDS.sleep(samplingInterval.toNanos());
+                }
+            } catch (SQLException ignore) {
+                // the lock waits are only an indication, the run goes on without them
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
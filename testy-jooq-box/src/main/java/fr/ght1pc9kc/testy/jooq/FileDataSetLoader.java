@@ -0,0 +1,54 @@
+package fr.ght1pc9kc.testy.jooq;
+
+import fr.ght1pc9kc.testy.jooq.model.FileDataSet;
+import lombok.experimental.UtilityClass;
+import org.jooq.DSLContext;
+import org.jooq.impl.DSL;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Objects;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Load the {@link FileDataSet} with the native H2 commands.
+ */
+@UtilityClass
+class FileDataSetLoader {
+
+    void load(DSLContext dsl, FileDataSet dataset) {
+        switch (dataset.format) {
+            case SQL_SCRIPT -> dsl.execute("RUNSCRIPT FROM {0}" + (dataset.compressed ? " COMPRESSION GZIP" : "")
+                    + " CHARSET 'UTF-8'", DSL.inline("classpath:/" + dataset.resource));
+            case CSV -> {
+                if (dataset.compressed) {
+                    loadCompressedCsv(dsl, dataset);
+                } else {
+                    BulkLoadStrategies.insertCsv(dsl, dataset.table, "classpath:/" + dataset.resource);
+                }
+            }
+        }
+    }
+
+    /**
+     * {@code CSVREAD} does not read compressed files, the file is uncompressed in a temporary file.
+     */
+    private static void loadCompressedCsv(DSLContext dsl, FileDataSet dataset) {
+        Path csv = null;
+        try (InputStream in = new GZIPInputStream(Objects.requireNonNull(
+                Thread.currentThread().getContextClassLoader().getResourceAsStream(dataset.resource),
+                "Resource " + dataset.resource + " not found in classpath !"))) {
+            csv = Files.createTempFile("testy-" + dataset.table.getName() + "-", ".csv");
+            Files.copy(in, csv, StandardCopyOption.REPLACE_EXISTING);
+            BulkLoadStrategies.insertCsv(dsl, dataset.table, csv.toString());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            BulkLoadStrategies.deleteQuietly(csv);
+        }
+    }
+}
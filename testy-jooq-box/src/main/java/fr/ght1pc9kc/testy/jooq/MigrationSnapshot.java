@@ -0,0 +1,152 @@
+package fr.ght1pc9kc.testy.jooq;
+
+import lombok.Value;
+import org.flywaydb.core.api.Location;
+import org.flywaydb.core.api.MigrationInfo;
+import org.h2.engine.Constants;
+import org.jooq.DSLContext;
+import org.jooq.SQLDialect;
+import org.jooq.impl.DSL;
+
+import javax.sql.DataSource;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Schema of a catalog as dumped by the H2 {@code SCRIPT} command just after a Flyway migration.
+ * <p>
+ * The snapshot is identified by a fingerprint of the resolved migrations. Replaying the script on a cleaned catalog
+ * gives the same schema, data and Flyway history than running the migrations again.
+ * <p>
+ * The snapshot can be written into a script file, restored with the H2 {@code RUNSCRIPT} command by the next JVMs.
+ */
+@Value
+class MigrationSnapshot {
+    private static final String MIGRATION_TIME_HEADER = "-- migration time: ";
+
+    String fingerprint;
+    List<String> statements;
+    Duration migrationTime;
+
+    /**
+     * Dump the given catalog with the H2 {@code SCRIPT} command.
+     *
+     * @param dataSource    The DataSource where the catalog was migrated
+     * @param catalog       The migrated catalog
+     * @param fingerprint   The fingerprint of the applied migrations
+     * @param migrationTime The time spent by Flyway to migrate the catalog
+     * @return The snapshot of the catalog
+     */
+    static MigrationSnapshot take(DataSource dataSource, String catalog, String fingerprint, Duration migrationTime) {
+        DSLContext dsl = DSL.using(dataSource, SQLDialect.H2);
+        List<String> statements = dsl.fetch("SCRIPT NOPASSWORDS NOSETTINGS NOVERSION SCHEMA {0}", DSL.name(catalog))
+                .getValues(0, String.class).stream()
+                .filter(line -> !line.startsWith("--"))
+                .toList();
+        return new MigrationSnapshot(fingerprint, statements, migrationTime);
+    }
+
+    /**
+     * Replay the snapshot into a cleaned catalog in one batch.
+     *
+     * @param dataSource The DataSource where the catalog will be restored
+     */
+    void restore(DataSource dataSource) {
+        DSL.using(dataSource, SQLDialect.H2)
+                .batch(statements.toArray(String[]::new))
+                .execute();
+    }
+
+    /**
+     * Write the snapshot into a script file readable by the H2 {@code RUNSCRIPT} command.
+     * <p>
+     * The script is written in a temporary file moved atomically to its final name, so that concurrent JVMs never
+     * read a partial script.
+     *
+     * @param file The script file
+     */
+    void write(Path file) {
+        try {
+            Files.createDirectories(file.getParent());
+            Path tmp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+            try (Writer writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+                writer.write(MIGRATION_TIME_HEADER + migrationTime + '\n');
+                for (String statement : statements) {
+                    writer.write(statement);
+                    writer.write('\n');
+                }
+            }
+            try {
+                Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to write migration snapshot " + file, e);
+        }
+    }
+
+    /**
+     * Restore a script file written by {@link #write(Path)} into a cleaned catalog, with the H2 {@code RUNSCRIPT}
+     * command, and take the snapshot of the restored catalog.
+     *
+     * @param dataSource  The DataSource where the catalog will be restored
+     * @param catalog     The restored catalog
+     * @param fingerprint The fingerprint of the migrations of the script
+     * @param file        The script file
+     * @return The snapshot of the restored catalog
+     */
+    static MigrationSnapshot restore(DataSource dataSource, String catalog, String fingerprint, Path file) {
+        Duration migrationTime;
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String header = reader.readLine();
+            if (header == null || !header.startsWith(MIGRATION_TIME_HEADER)) {
+                throw new IllegalStateException("Invalid migration snapshot " + file);
+            }
+            migrationTime = Duration.parse(header.substring(MIGRATION_TIME_HEADER.length()));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read migration snapshot " + file, e);
+        }
+        DSL.using(dataSource, SQLDialect.H2)
+                .execute("RUNSCRIPT FROM {0} CHARSET 'UTF-8'", DSL.inline(file.toAbsolutePath().toString()));
+        return take(dataSource, catalog, fingerprint, migrationTime);
+    }
+
+    /**
+     * Compute a fingerprint of the resolved migrations. Any change on a script checksum, a version, the location or
+     * the H2 version leads to a different fingerprint.
+     *
+     * @param location   The migrations location
+     * @param migrations The migrations resolved by Flyway
+     * @return The hexadecimal SHA-256 of the migrations
+     */
+    static String fingerprint(Location location, MigrationInfo[] migrations) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(("H2 " + Constants.VERSION + '\n').getBytes(StandardCharsets.UTF_8));
+            digest.update(location.getDescriptor().getBytes(StandardCharsets.UTF_8));
+            for (MigrationInfo migration : migrations) {
+                String entry = '\n' + migration.getType().name()
+                        + ':' + migration.getVersion()
+                        + ':' + migration.getScript()
+                        + ':' + migration.getChecksum();
+                digest.update(entry.getBytes(StandardCharsets.UTF_8));
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not supported by the JVM !", e);
+        }
+    }
+}
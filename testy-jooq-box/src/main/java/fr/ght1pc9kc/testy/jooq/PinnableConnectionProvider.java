@@ -0,0 +1,165 @@
+package fr.ght1pc9kc.testy.jooq;
+
+import org.jooq.ConnectionProvider;
+import org.jooq.Transaction;
+import org.jooq.TransactionContext;
+import org.jooq.TransactionProvider;
+import org.jooq.exception.DataAccessException;
+import org.jooq.impl.DataSourceConnectionProvider;
+import org.jooq.impl.DefaultTransactionProvider;
+import org.jooq.tools.jdbc.DefaultConnection;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * {@link ConnectionProvider} acquiring connections from a {@link DataSource} unless a connection was pinned.
+ * <p>
+ * While a connection is pinned, all the statements run through the {@code DSLContext} use it. The pinned connection
+ * ignores {@code commit}, {@code setAutoCommit} and {@code close} so the transaction opened by the owner of the
+ * connection can not be ended by the tested code. Its {@code rollback} only rolls back to the state of the pinning.
+ * <p>
+ * The jOOQ transactions run on a pinned connection, from {@link #transactionProvider()}, are all run in savepoints:
+ * a failing transaction only rolls back its own statements.
+ */
+final class PinnableConnectionProvider implements ConnectionProvider {
+    private final ConnectionProvider delegate;
+    private final AtomicReference<PinnedConnection> pinned = new AtomicReference<>();
+    private final TransactionProvider transactionProvider;
+
+    PinnableConnectionProvider(DataSource dataSource) {
+        this.delegate = new DataSourceConnectionProvider(dataSource);
+        this.transactionProvider = new PinnableTransactionProvider(new DefaultTransactionProvider(this));
+    }
+
+    /**
+     * @return The transaction provider to use with this connection provider
+     */
+    TransactionProvider transactionProvider() {
+        return transactionProvider;
+    }
+
+    /**
+     * Route all the next statements through the given connection.
+     *
+     * @param connection The connection to use, its transaction is managed by the caller
+     */
+    void pin(Connection connection) {
+        PinnedConnection pinnedConnection;
+        try {
+            pinnedConnection = new PinnedConnection(connection, connection.setSavepoint());
+        } catch (SQLException e) {
+            throw new DataAccessException("Unable to pin the connection", e);
+        }
+        if (!pinned.compareAndSet(null, pinnedConnection)) {
+            throw new IllegalStateException("A connection is already pinned !");
+        }
+    }
+
+    /**
+     * Release the pinned connection. The next statements will use the {@link DataSource} again.
+     */
+    void unpin() {
+        pinned.set(null);
+    }
+
+    @Override
+    public Connection acquire() throws DataAccessException {
+        Connection connection = pinned.get();
+        return (connection != null) ? connection : delegate.acquire();
+    }
+
+    @Override
+    public void release(Connection connection) throws DataAccessException {
+        if (!(connection instanceof PinnedConnection)) {
+            delegate.release(connection);
+        }
+    }
+
+    private static final class PinnedConnection extends DefaultConnection {
+        private final Savepoint pinning;
+
+        PinnedConnection(Connection delegate, Savepoint pinning) {
+            super(delegate);
+            this.pinning = pinning;
+        }
+
+        @Override
+        public void rollback() throws SQLException {
+            // The transaction belongs to the owner of the connection
+            getDelegate().rollback(pinning);
+        }
+
+        @Override
+        public void setAutoCommit(boolean autoCommit) {
+            // The transaction belongs to the owner of the connection
+        }
+
+        @Override
+        public void commit() {
+            // The transaction belongs to the owner of the connection
+        }
+
+        @Override
+        public void close() {
+            // The connection belongs to the owner of the connection
+        }
+    }
+
+    /**
+     * Run the transactions in savepoints of the pinned connection, or delegate when no connection is pinned.
+     */
+    private final class PinnableTransactionProvider implements TransactionProvider {
+        private final TransactionProvider unpinned;
+
+        private PinnableTransactionProvider(TransactionProvider unpinned) {
+            this.unpinned = unpinned;
+        }
+
+        @Override
+        public void begin(TransactionContext ctx) {
+            PinnedConnection connection = pinned.get();
+            if (connection == null) {
+                unpinned.begin(ctx);
+                return;
+            }
+            try {
+                ctx.transaction(new PinnedTransaction(connection, connection.getDelegate().setSavepoint()));
+            } catch (SQLException e) {
+                throw new DataAccessException("Unable to set the transaction savepoint", e);
+            }
+        }
+
+        @Override
+        public void commit(TransactionContext ctx) {
+            if (ctx.transaction() instanceof PinnedTransaction tx) {
+                try {
+                    tx.connection.getDelegate().releaseSavepoint(tx.savepoint);
+                } catch (SQLException e) {
+                    throw new DataAccessException("Unable to release the transaction savepoint", e);
+                }
+            } else {
+                unpinned.commit(ctx);
+            }
+        }
+
+        @Override
+        public void rollback(TransactionContext ctx) {
+            if (ctx.transaction() instanceof PinnedTransaction tx) {
+                try {
+                    tx.connection.getDelegate().rollback(tx.savepoint);
+                } catch (SQLException e) {
+                    throw new DataAccessException("Unable to roll back to the transaction savepoint", e);
+                }
+            } else {
+                unpinned.rollback(ctx);
+            }
+        }
+    }
+
+    private record PinnedTransaction(PinnedConnection connection, Savepoint savepoint) implements Transaction {
+    }
+}
@@ -0,0 +1,122 @@
+package fr.ght1pc9kc.testy.jooq;
+
+import org.h2.jdbcx.JdbcConnectionPool;
+
+import javax.sql.ConnectionPoolDataSource;
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+/**
+ * Bounded pool of H2 connections created by {@link WithInMemoryDatasource} with the {@code usePool} option.
+ * <p>
+ * The physical connections are opened once and reused, so the {@code INIT} script of the database URL is not run for
+ * each connection. Closing a borrowed connection rolls back its pending transaction and gives it back to the pool.
+ * <p>
+ * Injectable as {@link DataSource} or as {@code PooledDataSource} to read the pool statistics.
+ */
+public final class PooledDataSource implements DataSource {
+    private final JdbcConnectionPool pool;
+    private final LongAdder borrowCount = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+
+    PooledDataSource(ConnectionPoolDataSource dataSource, int maxConnections, Duration timeout) {
+        this.pool = JdbcConnectionPool.create(dataSource);
+        this.pool.setMaxConnections(maxConnections);
+        this.pool.setLoginTimeout((int) Math.max(1, timeout.toSeconds()));
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        long start = System.nanoTime();
+        try {
+            return pool.getConnection();
+        } finally {
+            waitNanos.add(System.nanoTime() - start);
+            borrowCount.increment();
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new UnsupportedOperationException("The pool connections all use the same user");
+    }
+
+    /**
+     * @return The maximum number of connections held by the pool.
+     */
+    public int getMaxConnections() {
+        return pool.getMaxConnections();
+    }
+
+    /**
+     * @return The number of connections currently borrowed.
+     */
+    public int getActiveConnections() {
+        return pool.getActiveConnections();
+    }
+
+    /**
+     * @return The number of connections borrowed since the pool creation.
+     */
+    public long getBorrowCount() {
+        return borrowCount.sum();
+    }
+
+    /**
+     * @return The cumulated time spent to get connections from the pool, including the creation of new ones.
+     */
+    public Duration getWaitTime() {
+        return Duration.ofNanos(waitNanos.sum());
+    }
+
+    /**
+     * Close all the idle connections. The borrowed connections are closed when they are given back.
+     */
+    void dispose() {
+        pool.dispose();
+    }
+
+    @Override
+    public PrintWriter getLogWriter() {
+        return pool.getLogWriter();
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) {
+        pool.setLogWriter(out);
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) {
+        pool.setLoginTimeout(seconds);
+    }
+
+    @Override
+    public int getLoginTimeout() {
+        return pool.getLoginTimeout();
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        throw new SQLFeatureNotSupportedException();
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) {
+            return iface.cast(this);
+        }
+        return pool.unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance(this) || pool.isWrapperFor(iface);
+    }
+}
@@ -0,0 +1,101 @@
+package fr.ght1pc9kc.testy.jooq;
+
+import fr.ght1pc9kc.testy.jooq.model.ExecutedStatement;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * The statements executed through the {@code DSLContext} of {@link WithDslContext} during the current test.
+ * <p>
+ * Available when the query statistics are enabled on {@link WithDslContext}. The statements executed by the
+ * extensions before the test, like the samples loading, are not recorded.
+ *
+ * <pre><code>
+ * {@literal @}Test
+ * void should_find_users(UserRepository tested, QueryStats stats) {
+ *     tested.findAllWithRoles();
+ *
+ *     stats.assertMaxQueries(2);
+ *     stats.assertNoRepeatedStatement();
+ * }
+ * </code></pre>
+ */
+public final class QueryStats {
+    private final List<ExecutedStatement> statements = new CopyOnWriteArrayList<>();
+
+    /**
+     * @return The statements executed since the beginning of the test, in execution order.
+     */
+    public List<ExecutedStatement> statements() {
+        return List.copyOf(statements);
+    }
+
+    /**
+     * @return The number of statements executed since the beginning of the test.
+     */
+    public int count() {
+        return statements.size();
+    }
+
+    /**
+     * Fail if more than {@code max} statements were executed.
+     *
+     * @param max The maximum number of statements
+     */
+    public void assertMaxQueries(int max) {
+        List<ExecutedStatement> executed = statements();
+        if (executed.size() > max) {
+            throw new AssertionError("Expected at most " + max + " queries but " + executed.size() + " were executed:"
+                    + describe(executed));
+        }
+    }
+
+    /**
+     * Fail if the same SQL was executed more than once, the usual sign of an N+1 selects problem.
+     */
+    public void assertNoRepeatedStatement() {
+        Map<String, List<ExecutedStatement>> bySql = statements().stream()
+                .collect(Collectors.groupingBy(s -> s.sql));
+        List<ExecutedStatement> repeated = bySql.values().stream()
+                .filter(l -> l.size() > 1)
+                .flatMap(List::stream)
+                .toList();
+        if (!repeated.isEmpty()) {
+            throw new AssertionError("Expected no repeated statement but found:" + describe(repeated));
+        }
+    }
+
+    /**
+     * Fail if a statement took longer than the given duration.
+     *
+     * @param max The maximum execution time of a statement
+     */
+    public void assertNoneSlowerThan(Duration max) {
+        List<ExecutedStatement> slow = statements().stream()
+                .filter(s -> s.executionTime.compareTo(max) > 0)
+                .toList();
+        if (!slow.isEmpty()) {
+            throw new AssertionError("Expected no statement slower than " + max.toMillis() + " ms but found:"
+                    + describe(slow));
+        }
+    }
+
+    void record(ExecutedStatement statement) {
+        statements.add(statement);
+    }
+
+    void clear() {
+        statements.clear();
+    }
+
+    private static String describe(List<ExecutedStatement> executed) {
+        Function<ExecutedStatement, String> line = s -> String.format("%n  [%d ms, %d rows] %s%s",
+                s.executionTime.toMillis(), s.rowsFetched, s.sql, (s.caller == null) ? "" : " at " + s.caller);
+        return executed.stream().map(line).collect(Collectors.joining());
+    }
+}
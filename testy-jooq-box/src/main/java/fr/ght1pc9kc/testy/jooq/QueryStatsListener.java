@@ -0,0 +1,88 @@
+package fr.ght1pc9kc.testy.jooq;
+
+import fr.ght1pc9kc.testy.core.extensions.ChainedExtension;
+import fr.ght1pc9kc.testy.jooq.model.ExecutedStatement;
+import org.jooq.ExecuteContext;
+import org.jooq.ExecuteListener;
+import org.jooq.Query;
+
+import java.security.CodeSource;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * {@link ExecuteListener} recording each statement executed through a {@code DSLContext} into a {@link QueryStats}.
+ */
+final class QueryStatsListener implements ExecuteListener {
+    private static final String START_NANOS = QueryStatsListener.class.getName() + ".start";
+    private static final String FETCHED = QueryStatsListener.class.getName() + ".fetched";
+    private static final StackWalker WALKER = StackWalker.getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE);
+    private static final Set<CodeSource> TESTY_SOURCES = Stream.of(QueryStatsListener.class, ChainedExtension.class)
+            .map(c -> c.getProtectionDomain().getCodeSource())
+            .filter(Objects::nonNull)
+            .collect(Collectors.toUnmodifiableSet());
+
+    private final QueryStats stats;
+
+    QueryStatsListener(QueryStats stats) {
+        this.stats = stats;
+    }
+
+    @Override
+    public void start(ExecuteContext ctx) {
+        ctx.data(START_NANOS, System.nanoTime());
+        ctx.data(FETCHED, new AtomicInteger());
+    }
+
+    @Override
+    public void recordEnd(ExecuteContext ctx) {
+        ((AtomicInteger) ctx.data(FETCHED)).incrementAndGet();
+    }
+
+    @Override
+    public void end(ExecuteContext ctx) {
+        long start = (long) ctx.data(START_NANOS);
+        Query[] batch = ctx.batchQueries();
+        String sql = (batch.length == 0) ? ctx.sql() : String.join(";", ctx.batchSQL());
+        int binds = Arrays.stream(batch.length == 0 ? new Query[]{ctx.query()} : batch)
+                .filter(Objects::nonNull)
+                .mapToInt(q -> q.getBindValues().size())
+                .sum();
+
+        stats.record(ExecutedStatement.builder()
+                .sql(sql)
+                .bindCount(binds)
+                .executionTime(Duration.ofNanos(System.nanoTime() - start))
+                .rowsFetched(((AtomicInteger) ctx.data(FETCHED)).get())
+                .caller(caller())
+                .build());
+    }
+
+    /**
+     * The first frame out of jOOQ, the JDK, JUnit and the testy library, as the line of the test running the
+     * statement.
+     */
+    private static StackTraceElement caller() {
+        return WALKER.walk(frames -> frames
+                .filter(f -> !isInfrastructure(f.getDeclaringClass()))
+                .findFirst()
+                .map(StackWalker.StackFrame::toStackTraceElement)
+                .orElse(null));
+    }
+
+    private static boolean isInfrastructure(Class<?> frameClass) {
+        String className = frameClass.getName();
+        return className.startsWith("org.jooq.")
+                || className.startsWith("org.junit.")
+                || className.startsWith("java.")
+                || className.startsWith("jdk.")
+                || className.startsWith("sun.")
+                || (className.startsWith("fr.ght1pc9kc.testy.")
+                && TESTY_SOURCES.contains(frameClass.getProtectionDomain().getCodeSource()));
+    }
+}
@@ -0,0 +1,131 @@
+package fr.ght1pc9kc.testy.jooq;
+
+import org.h2.api.Trigger;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * H2 {@link Trigger} recording the primary keys of the rows inserted, updated or deleted in a table.
+ * <p>
+ * This class is instantiated by H2 and must stay public. It is installed by {@link WithSampleDataLoaded} with the
+ * {@link fr.ght1pc9kc.testy.jooq.model.SampleResetMode#ROW_DIFF} mode and should not be used directly.
+ * <p>
+ * For the tables without primary key, only the fact that the table changed is recorded.
+ */
+public final class RowChangeTrigger implements Trigger {
+    private static final Map<String, RowChanges> CHANGES = new ConcurrentHashMap<>();
+
+    private RowChanges changes;
+    private int[] keyColumns;
+
+    @Override
+    public void init(Connection conn, String schemaName, String triggerName, String tableName, boolean before, int type)
+            throws SQLException {
+        this.changes = changesOf(conn.getCatalog(), tableName);
+        this.keyColumns = primaryKeyColumns(conn.getMetaData(), conn.getCatalog(), schemaName, tableName);
+    }
+
+    @Override
+    public void fire(Connection conn, Object[] oldRow, Object[] newRow) {
+        if (keyColumns.length == 0) {
+            changes.tableChanged.set(true);
+            return;
+        }
+        if (oldRow != null) {
+            changes.keys.add(keyOf(oldRow));
+        }
+        if (newRow != null) {
+            changes.keys.add(keyOf(newRow));
+        }
+    }
+
+    private List<Object> keyOf(Object[] row) {
+        return Arrays.stream(keyColumns).mapToObj(i -> row[i]).toList();
+    }
+
+    private static int[] primaryKeyColumns(DatabaseMetaData metaData, String catalog, String schema, String table)
+            throws SQLException {
+        Map<Short, String> keyNames = new TreeMap<>();
+        try (ResultSet rs = metaData.getPrimaryKeys(catalog, schema, table)) {
+            while (rs.next()) {
+                keyNames.put(rs.getShort("KEY_SEQ"), rs.getString("COLUMN_NAME"));
+            }
+        }
+
+        List<Integer> positions = new ArrayList<>(keyNames.size());
+        for (String column : keyNames.values()) {
+            try (ResultSet rs = metaData.getColumns(catalog, schema, table, column)) {
+                if (rs.next()) {
+                    positions.add(rs.getInt("ORDINAL_POSITION") - 1);
+                }
+            }
+        }
+        return positions.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Retrieve the changes recorded for a table.
+     *
+     * @param database The H2 database name
+     * @param table    The table name
+     * @return The changes of the table, never {@code null}
+     */
+    static RowChanges changesOf(String database, String table) {
+        return CHANGES.computeIfAbsent(database + '.' + table.toUpperCase(Locale.ROOT), k -> new RowChanges());
+    }
+
+    /**
+     * Forget the changes recorded for a table, once its trigger is dropped.
+     *
+     * @param database The H2 database name
+     * @param table    The table name
+     */
+    static void forget(String database, String table) {
+        CHANGES.remove(database + '.' + table.toUpperCase(Locale.ROOT));
+    }
+
+    /**
+     * @return The number of tables whose changes are recorded, in all the databases
+     */
+    static int recordedTables() {
+        return CHANGES.size();
+    }
+
+    /**
+     * Primary keys of the rows changed in a table since the last {@link #clear()}.
+     * The key values are the raw values given by H2.
+     */
+    static final class RowChanges {
+        private final Set<List<Object>> keys = ConcurrentHashMap.newKeySet();
+        private final AtomicBoolean tableChanged = new AtomicBoolean(false);
+
+        Set<List<Object>> keys() {
+            return keys;
+        }
+
+        boolean isTableChanged() {
+            return tableChanged.get();
+        }
+
+        boolean isEmpty() {
+            return keys.isEmpty() && !tableChanged.get();
+        }
+
+        void clear() {
+            keys.clear();
+            tableChanged.set(false);
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package fr.ght1pc9kc.testy.jooq;
+
+import fr.ght1pc9kc.testy.jooq.RowChangeTrigger.RowChanges;
+import org.jooq.Condition;
+import org.jooq.DSLContext;
+import org.jooq.Field;
+import org.jooq.Table;
+import org.jooq.TableRecord;
+import org.jooq.UniqueKey;
+import org.jooq.impl.DSL;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * Restore the rows changed in the sample tables from the original records kept in memory.
+ * <p>
+ * A {@link RowChangeTrigger} is installed on each table to record the primary keys of the changed rows. On restore,
+ * the rows inserted by the test are deleted and the original rows updated or inserted back. The tables without
+ * primary key, whose records are not kept in memory, or with records whose key is left to the database, are emptied
+ * and fully reloaded when they changed.
+ */
+final class RowDiffRestore {
+    private static final String TRIGGER_PREFIX = "TESTY_DIFF_";
+
+    private final List<Table<?>> tables;
+    private final Set<Table<?>> fullReloadTables;
+    private final BiConsumer<DSLContext, Table<?>> tableLoader;
+    private final Map<Table<?>, Map<List<Object>, TableRecord<?>>> originals;
+
+    private String database;
+
+    /**
+     * @param tables           The sample tables, parents first
+     * @param records          The original records kept in memory
+     * @param fullReloadTables The tables to reload entirely when they changed
+     * @param tableLoader      Insert all the original records of a table
+     */
+    RowDiffRestore(List<Table<?>> tables, List<? extends TableRecord<?>> records,
+                   Set<Table<?>> fullReloadTables, BiConsumer<DSLContext, Table<?>> tableLoader) {
+        this.tables = List.copyOf(tables);
+        this.fullReloadTables = withUnsetKeys(fullReloadTables, records);
+        this.tableLoader = tableLoader;
+        this.originals = new HashMap<>();
+        for (TableRecord<?> record : records) {
+            Table<?> table = record.getTable();
+            UniqueKey<?> pk = table.getPrimaryKey();
+            if (pk != null && !this.fullReloadTables.contains(table)) {
+                List<Object> key = pk.getFields().stream().<Object>map(record::get).toList();
+                originals.computeIfAbsent(table, t -> new HashMap<>()).put(key, record);
+            }
+        }
+    }
+
+    /**
+     * Add the tables with records whose primary key is unset to the tables fully reloaded, their rows can not be
+     * found back by key.
+     */
+    private static Set<Table<?>> withUnsetKeys(
+            Set<Table<?>> fullReloadTables, List<? extends TableRecord<?>> records) {
+        Set<Table<?>> reloaded = new HashSet<>(fullReloadTables);
+        for (TableRecord<?> record : records) {
+            UniqueKey<?> pk = record.getTable().getPrimaryKey();
+            if (pk != null && pk.getFields().stream().anyMatch(f -> record.get(f) == null)) {
+                reloaded.add(record.getTable());
+            }
+        }
+        return Set.copyOf(reloaded);
+    }
+
+    /**
+     * Create the change triggers on all the sample tables and forget the previous changes. The changes are recorded
+     * per H2 database, as named by the connection catalog.
+     *
+     * @param dsl The DSL used to create the triggers
+     */
+    void install(DSLContext dsl) {
+        database = dsl.connectionResult(Connection::getCatalog);
+        for (Table<?> table : tables) {
+            dsl.execute("CREATE TRIGGER IF NOT EXISTS {0} AFTER INSERT, UPDATE, DELETE ON {1} FOR EACH ROW CALL {2}",
+                    DSL.name(TRIGGER_PREFIX + table.getName()),
+                    DSL.name(table.getName()),
+                    DSL.inline(RowChangeTrigger.class.getName()));
+            RowChangeTrigger.changesOf(database, table.getName()).clear();
+        }
+    }
+
+    /**
+     * Drop the change triggers and forget their recorded changes.
+     *
+     * @param dsl The DSL used to drop the triggers
+     */
+    void uninstall(DSLContext dsl) {
+        if (database == null) {
+            return;
+        }
+        for (Table<?> table : tables) {
+            dsl.execute("DROP TRIGGER IF EXISTS {0}", DSL.name(TRIGGER_PREFIX + table.getName()));
+            RowChangeTrigger.forget(database, table.getName());
+        }
+        database = null;
+    }
+
+    /**
+     * Restore the changed rows in a single transaction.
+     *
+     * @param dsl The DSL used to restore the rows
+     * @return The number of restored or deleted rows, the fully reloaded tables count their deleted rows
+     */
+    int restore(DSLContext dsl) {
+        Map<Table<?>, RowChanges> changed = new LinkedHashMap<>();
+        Map<Table<?>, List<List<Object>>> changedKeys = new HashMap<>();
+        for (Table<?> table : tables) {
+            RowChanges changes = RowChangeTrigger.changesOf(database, table.getName());
+            if (!changes.isEmpty()) {
+                changed.put(table, changes);
+                changedKeys.put(table, List.copyOf(changes.keys()));
+            }
+        }
+        if (changed.isEmpty()) {
+            return 0;
+        }
+
+        return dsl.transactionResult(tx -> {
+            DSLContext txDsl = DSL.using(tx);
+            int count = 0;
+
+            // Children first, remove the rows which do not exist in the samples
+            for (int i = tables.size() - 1; i >= 0; i--) {
+                Table<?> table = tables.get(i);
+                RowChanges changes = changed.get(table);
+                if (changes == null) {
+                    continue;
+                }
+                if (fullReloadTables.contains(table)) {
+                    count += txDsl.deleteFrom(table).execute();
+                    continue;
+                }
+                UniqueKey<?> pk = table.getPrimaryKey();
+                Map<List<Object>, TableRecord<?>> tableOriginals = originals.getOrDefault(table, Map.of());
+                for (List<Object> rawKey : changedKeys.get(table)) {
+                    List<Object> key = convertKey(pk, rawKey);
+                    if (!tableOriginals.containsKey(key)) {
+                        count += txDsl.deleteFrom(table).where(keyCondition(pk, key)).execute();
+                    }
+                }
+            }
+
+            // Parents first, put back the original rows
+            for (Table<?> table : tables) {
+                RowChanges changes = changed.get(table);
+                if (changes == null) {
+                    continue;
+                }
+                if (fullReloadTables.contains(table)) {
+                    tableLoader.accept(txDsl, table);
+                    continue;
+                }
+                UniqueKey<?> pk = table.getPrimaryKey();
+                Map<List<Object>, TableRecord<?>> tableOriginals = originals.getOrDefault(table, Map.of());
+                for (List<Object> rawKey : changedKeys.get(table)) {
+                    List<Object> key = convertKey(pk, rawKey);
+                    TableRecord<?> original = tableOriginals.get(key);
+                    if (original != null) {
+                        Map<Field<?>, Object> values = new LinkedHashMap<>();
+                        for (Field<?> field : original.fields()) {
+                            values.put(field, original.get(field));
+                        }
+                        if (txDsl.update(table).set(values).where(keyCondition(pk, key)).execute() == 0) {
+                            txDsl.insertInto(table).set(values).execute();
+                        }
+                        count++;
+                    }
+                }
+            }
+
+            changed.values().forEach(RowChanges::clear);
+            return count;
+        });
+    }
+
+    private static List<Object> convertKey(UniqueKey<?> pk, List<Object> rawKey) {
+        List<? extends Field<?>> fields = pk.getFields();
+        List<Object> key = new ArrayList<>(fields.size());
+        for (int i = 0; i < fields.size(); i++) {
+            key.add(fields.get(i).getDataType().convert(rawKey.get(i)));
+        }
+        return key;
+    }
+
+    private static Condition keyCondition(UniqueKey<?> pk, List<Object> key) {
+        List<? extends Field<?>> fields = pk.getFields();
+        List<Condition> conditions = new ArrayList<>(fields.size());
+        for (int i = 0; i < fields.size(); i++) {
+            conditions.add(equal(fields.get(i), key.get(i)));
+        }
+        return DSL.and(conditions);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Condition equal(Field<T> field, Object value) {
+        return (Objects.isNull(value)) ? field.isNull() : field.eq((T) value);
+    }
+}
@@ -0,0 +1,68 @@
+package fr.ght1pc9kc.testy.jooq;
+
+import org.h2.tools.Server;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.SQLException;
+
+/**
+ * JVM-wide H2 TCP server, shared by all the catalogs and test classes asking for it.
+ * <p>
+ * Kept in the root {@link ExtensionContext} store, so the server started by the first {@link #acquire(int)} runs
+ * until all the tests are run, instead of being restarted for each test class.
+ */
+final class SharedTcpServer implements ExtensionContext.Store.CloseableResource {
+    private static final Logger LOGGER = LoggerFactory.getLogger(SharedTcpServer.class);
+    private static final ExtensionContext.Namespace NAMESPACE =
+            ExtensionContext.Namespace.create(SharedTcpServer.class.getName());
+
+    /**
+     * Port asking for any free port.
+     */
+    static final int FREE_PORT = 0;
+
+    private Server server;
+    private int requestedPort;
+
+    /**
+     * @param context Any context of the test run
+     * @return The server shared by the whole test run, not started yet for the first call
+     */
+    static SharedTcpServer of(ExtensionContext context) {
+        return context.getRoot().getStore(NAMESPACE)
+                .getOrComputeIfAbsent(SharedTcpServer.class, k -> new SharedTcpServer(), SharedTcpServer.class);
+    }
+
+    /**
+     * Get the running server, or start it on the given port.
+     *
+     * @param port The port of the server, {@link #FREE_PORT} to bind any free port
+     * @return The running server
+     * @throws SQLException if the server can not be started
+     */
+    synchronized Server acquire(int port) throws SQLException {
+        if (server == null) {
+            server = Server.createTcpServer("-tcpAllowOthers", "-tcpPort", Integer.toString(port)).start();
+            requestedPort = port;
+            LOGGER.info("H2 tcp server started on port: {}", server.getPort());
+        } else if (port != FREE_PORT && port != requestedPort && port != server.getPort()) {
+            throw new IllegalStateException("H2 tcp server already running on port " + server.getPort()
+                    + ", unable to bind port " + port + " !");
+        }
+        return server;
+    }
+
+    /**
+     * Stop the server, called by JUnit once all the tests are run.
+     */
+    @Override
+    public synchronized void close() {
+        if (server != null) {
+            server.stop();
+            LOGGER.debug("H2 tcp server stopped on port: {}", server.getPort());
+            server = null;
+        }
+    }
+}
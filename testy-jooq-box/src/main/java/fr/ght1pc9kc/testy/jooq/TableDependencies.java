@@ -0,0 +1,45 @@
+package fr.ght1pc9kc.testy.jooq;
+
+import lombok.experimental.UtilityClass;
+import org.jooq.Table;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Order the tables from their foreign keys, as declared by the jOOQ generated {@link Table#getReferences()}.
+ */
+@UtilityClass
+class TableDependencies {
+
+    /**
+     * Sort the tables so that each table comes after the tables it references. The tables without dependency
+     * between them keep their given order, the self references are ignored.
+     * <p>
+     * On a reference cycle, the first remaining table is taken as is.
+     *
+     * @param tables The tables to sort, without duplicate
+     * @return The referenced tables first, in a new list
+     */
+    List<Table<?>> sortByReferences(Collection<? extends Table<?>> tables) {
+        Set<Table<?>> remaining = new LinkedHashSet<>(tables);
+        Set<Table<?>> placed = new HashSet<>();
+        List<Table<?>> sorted = new ArrayList<>(tables.size());
+        while (!remaining.isEmpty()) {
+            Table<?> next = remaining.stream()
+                    .filter(t -> t.getReferences().stream()
+                            .map(fk -> fk.getKey().getTable())
+                            .allMatch(ref -> ref.equals(t) || placed.contains(ref) || !remaining.contains(ref)))
+                    .findFirst()
+                    .orElseGet(() -> remaining.iterator().next());
+            remaining.remove(next);
+            placed.add(next);
+            sorted.add(next);
+        }
+        return sorted;
+    }
+}
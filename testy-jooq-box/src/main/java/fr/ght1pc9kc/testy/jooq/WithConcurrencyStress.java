@@ -0,0 +1,169 @@
+package fr.ght1pc9kc.testy.jooq;
+
+import fr.ght1pc9kc.testy.jooq.model.SampleResetMode;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.ParameterContext;
+import org.junit.jupiter.api.extension.ParameterResolver;
+
+import javax.inject.Named;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Provide a {@link ConcurrencyStress} for the Unit Test, to run a test body from many threads at once against the
+ * {@code DSLContext} of a {@link WithDslContext}.
+ *
+ * <pre><code>
+ * private static final WithInMemoryDatasource wDataSource = WithInMemoryDatasource.builder()
+ *         .setLockTimeout(Duration.ofMillis(500))
+ *         .build();
+ * private static final WithDslContext wDsl = WithDslContext.builder()
+ *         .setDatasourceExtension(wDataSource)
+ *         .build();
+ * private static final WithConcurrencyStress wStress = WithConcurrencyStress.builder()
+ *         .setDslContextExtension(wDsl)
+ *         .setThreads(16)
+ *         .setIterations(100)
+ *         .build();
+ *
+ * {@literal @}RegisterExtension
+ * static final ChainedExtension chain = ChainedExtension
+ *         .outer(wDataSource)
+ *         .append(wDsl)
+ *         .append(wStress)
+ *         .register();
+ * </code></pre>
+ * <p>
+ * The threads are platform threads by default. On Java 21 and later, {@code setThreadFactory} accepts
+ * {@code Thread.ofVirtual().factory()} to run the body from virtual threads. The {@link SampleResetMode#ROLLBACK}
+ * mode of {@link WithSampleDataLoaded} pins a single connection and must not be used with this extension.
+ *
+ * @see fr.ght1pc9kc.testy.jooq.model.StressReport
+ */
+public final class WithConcurrencyStress implements ParameterResolver {
+
+    private final WithDslContext wDsl;
+    private final int threads;
+    private final int iterations;
+    private final ThreadFactory threadFactory;
+    private final Duration samplingInterval;
+
+    private WithConcurrencyStress(WithDslContext wDsl, int threads, int iterations,
+                                  ThreadFactory threadFactory, Duration samplingInterval) {
+        this.wDsl = wDsl;
+        this.threads = threads;
+        this.iterations = iterations;
+        this.threadFactory = threadFactory;
+        this.samplingInterval = samplingInterval;
+    }
+
+    @Override
+    public boolean supportsParameter(ParameterContext parameterContext, ExtensionContext extensionContext) {
+        return ConcurrencyStress.class.equals(parameterContext.getParameter().getType())
+                && getContextCatalog(extensionContext).equals(getCatalogForParameter(parameterContext, extensionContext));
+    }
+
+    @Override
+    public Object resolveParameter(ParameterContext parameterContext, ExtensionContext extensionContext) {
+        return new ConcurrencyStress(
+                wDsl.getDslContext(extensionContext),
+                wDsl.getDatasourceExtension().getDataSource(extensionContext),
+                threads, iterations, threadFactory, samplingInterval);
+    }
+
+    private String getCatalogForParameter(ParameterContext parameterContext, ExtensionContext extensionContext) {
+        return parameterContext.findAnnotation(Named.class)
+                .map(Named::value)
+                .orElseGet(() -> getContextCatalog(extensionContext));
+    }
+
+    private String getContextCatalog(ExtensionContext context) {
+        return Objects.requireNonNull(wDsl.getDatasourceExtension().getCatalog(context),
+                "Catalog not found in context Store !");
+    }
+
+    public static WithConcurrencyStressBuilder builder() {
+        return new WithConcurrencyStressBuilder();
+    }
+
+    public static class WithConcurrencyStressBuilder {
+        private WithDslContext wDsl;
+        private int threads = Runtime.getRuntime().availableProcessors();
+        private int iterations = 100;
+        private ThreadFactory threadFactory = null;
+        private Duration samplingInterval = Duration.ofMillis(5);
+
+        public WithConcurrencyStressBuilder setDslContextExtension(WithDslContext wDsl) {
+            this.wDsl = wDsl;
+            return this;
+        }
+
+        /**
+         * By default, one thread per available processor.
+         *
+         * @param threads The number of threads running the body at once
+         * @return the builder instance
+         */
+        public WithConcurrencyStressBuilder setThreads(int threads) {
+            if (threads <= 0) {
+                throw new IllegalArgumentException("The thread count must be positive !");
+            }
+            this.threads = threads;
+            return this;
+        }
+
+        /**
+         * By default, 100 iterations.
+         *
+         * @param iterations The number of executions of the body by each thread
+         * @return the builder instance
+         */
+        public WithConcurrencyStressBuilder setIterations(int iterations) {
+            if (iterations <= 0) {
+                throw new IllegalArgumentException("The iteration count must be positive !");
+            }
+            this.iterations = iterations;
+            return this;
+        }
+
+        /**
+         * Create the threads running the body, for example the virtual threads of Java 21.
+         * <p>
+         * By default, daemon platform threads.
+         *
+         * @param threadFactory The thread factory
+         * @return the builder instance
+         */
+        public WithConcurrencyStressBuilder setThreadFactory(ThreadFactory threadFactory) {
+            this.threadFactory = Objects.requireNonNull(threadFactory);
+            return this;
+        }
+
+        /**
+         * By default, the lock waits are sampled every 5 milliseconds.
+         *
+         * @param samplingInterval The interval between two reads of the H2 sessions
+         * @return the builder instance
+         */
+        public WithConcurrencyStressBuilder setLockSamplingInterval(Duration samplingInterval) {
+            this.samplingInterval = Objects.requireNonNull(samplingInterval);
+            return this;
+        }
+
+        public WithConcurrencyStress build() {
+            Objects.requireNonNull(wDsl, "A DSLContext extension was mandatory !");
+            ThreadFactory factory = threadFactory;
+            if (factory == null) {
+                AtomicInteger counter = new AtomicInteger();
+                factory = r -> {
+                    Thread thread = new Thread(r, "testy-stress-" + counter.getAndIncrement());
+                    thread.setDaemon(true);
+                    return thread;
+                };
+            }
+            return new WithConcurrencyStress(wDsl, threads, iterations, factory, samplingInterval);
+        }
+    }
+}
@@ -1,6 +1,6 @@
 package fr.ght1pc9kc.testy.jooq;
 
-import lombok.AllArgsConstructor;
+import fr.ght1pc9kc.testy.jooq.model.MigrationMetrics;
 import org.flywaydb.core.Flyway;
 import org.flywaydb.core.api.Location;
 import org.flywaydb.core.api.configuration.ClassicConfiguration;
@@ -8,10 +8,20 @@ import org.jetbrains.annotations.Nullable;
 import org.junit.jupiter.api.extension.BeforeAllCallback;
 import org.junit.jupiter.api.extension.BeforeEachCallback;
 import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.ParameterContext;
+import org.junit.jupiter.api.extension.ParameterResolver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import javax.inject.Named;
 import javax.sql.DataSource;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * <p>This extension depends on a {@link DatasourceExtension} and runs a <a href="https://flywaydb.org/">Flyway</a>
@@ -39,13 +49,55 @@ import java.util.Optional;
  *         .append(wDatabaseLoaded)
  *         .register();
  * </code></pre>
+ *
+ * <p>When many test classes run the same migrations, the migration cache avoids replaying them for each class. The
+ * first class runs the Flyway migration and takes a snapshot of the catalog with the H2 {@code SCRIPT} command. The
+ * following classes in the same JVM restore this snapshot instead of migrating. The snapshot is keyed by the catalog
+ * and the migrations location, and is invalidated as soon as a migration checksum changes.</p>
+ *
+ * <pre><code>
+ * private static final WithDatabaseLoaded wDatabaseLoaded = WithDatabaseLoaded.builder()
+ *         .setDatasourceExtension(wDataSource)
+ *         .enableMigrationCache()
+ *         .build();
+ * </code></pre>
+ *
+ * <p>The snapshot can also be persisted in a script file, under {@code target/} by default, to be restored with the
+ * H2 {@code RUNSCRIPT} command by the next JVMs, as the other surefire forks or the next local runs. The file name
+ * contains a hash of the migration scripts and of the H2 version, an outdated file is never restored.</p>
+ *
+ * <pre><code>
+ * private static final WithDatabaseLoaded wDatabaseLoaded = WithDatabaseLoaded.builder()
+ *         .setDatasourceExtension(wDataSource)
+ *         .enablePersistentMigrationCache()
+ *         .build();
+ * </code></pre>
+ *
+ * <p>The timings of the migration or of the restoration can be injected as {@link MigrationMetrics}.</p>
  */
-@AllArgsConstructor
-public final class WithDatabaseLoaded implements BeforeAllCallback, BeforeEachCallback {
+public final class WithDatabaseLoaded implements BeforeAllCallback, BeforeEachCallback, ParameterResolver {
+    private static final Logger LOGGER = LoggerFactory.getLogger(WithDatabaseLoaded.class);
+    private static final Map<String, MigrationSnapshot> MIGRATION_SNAPSHOTS = new ConcurrentHashMap<>();
+
     private static final String P_LOADED = "dbLoaded_";
+    private static final String P_METRICS = "dbMetrics_";
 
     private final DatasourceExtension wDatasource;
     private final @Nullable Location location;
+    private final boolean migrationCache;
+    private final @Nullable Path snapshotDirectory;
+
+    public WithDatabaseLoaded(DatasourceExtension wDatasource, @Nullable Location location) {
+        this(wDatasource, location, false, null);
+    }
+
+    private WithDatabaseLoaded(DatasourceExtension wDatasource, @Nullable Location location,
+                               boolean migrationCache, @Nullable Path snapshotDirectory) {
+        this.wDatasource = wDatasource;
+        this.location = location;
+        this.migrationCache = migrationCache;
+        this.snapshotDirectory = snapshotDirectory;
+    }
 
     @Override
     public void beforeAll(ExtensionContext context) {
@@ -63,11 +115,91 @@ public final class WithDatabaseLoaded implements BeforeAllCallback, BeforeEachCa
                 .locations(migrationsLocation)
                 .load();
         flyway.clean();
-        flyway.migrate();
 
+        MigrationMetrics metrics;
+        if (migrationCache) {
+            metrics = migrateOrRestore(flyway, dataSource, catalog, migrationsLocation);
+        } else {
+            metrics = MigrationMetrics.builder()
+                    .catalog(catalog)
+                    .migrationTime(migrate(flyway))
+                    .build();
+        }
+
+        getStore(context).put(P_METRICS + catalog, metrics);
         getStore(context).put(P_LOADED + catalog, true);
     }
 
+    private MigrationMetrics migrateOrRestore(Flyway flyway, DataSource dataSource, String catalog, Location migrationsLocation) {
+        String fingerprint = MigrationSnapshot.fingerprint(migrationsLocation, flyway.info().all());
+        String snapshotKey = catalog + '@' + migrationsLocation.getDescriptor();
+        MigrationSnapshot snapshot = MIGRATION_SNAPSHOTS.get(snapshotKey);
+
+        if (snapshot != null && snapshot.getFingerprint().equals(fingerprint)) {
+            long start = System.nanoTime();
+            snapshot.restore(dataSource);
+            Duration restoreTime = Duration.ofNanos(System.nanoTime() - start);
+            LOGGER.debug("Catalog {} restored from snapshot in {} ms (migration took {} ms)",
+                    catalog, restoreTime.toMillis(), snapshot.getMigrationTime().toMillis());
+            return MigrationMetrics.builder()
+                    .catalog(catalog)
+                    .fingerprint(fingerprint)
+                    .migrationTime(snapshot.getMigrationTime())
+                    .restoreTime(restoreTime)
+                    .restored(true)
+                    .build();
+        }
+
+        if (snapshot != null) {
+            LOGGER.debug("Migrations changed for {}, snapshot invalidated", snapshotKey);
+        }
+
+        Path snapshotFile = (snapshotDirectory == null) ? null
+                : snapshotDirectory.resolve(catalog + '-' + fingerprint + ".sql");
+        if (snapshotFile != null && Files.isRegularFile(snapshotFile)) {
+            long start = System.nanoTime();
+            MigrationSnapshot restored = MigrationSnapshot.restore(dataSource, catalog, fingerprint, snapshotFile);
+            Duration restoreTime = Duration.ofNanos(System.nanoTime() - start);
+            MIGRATION_SNAPSHOTS.put(snapshotKey, restored);
+            LOGGER.debug("Catalog {} restored from {} in {} ms (migration took {} ms)",
+                    catalog, snapshotFile, restoreTime.toMillis(), restored.getMigrationTime().toMillis());
+            return MigrationMetrics.builder()
+                    .catalog(catalog)
+                    .fingerprint(fingerprint)
+                    .migrationTime(restored.getMigrationTime())
+                    .restoreTime(restoreTime)
+                    .restored(true)
+                    .snapshotFile(snapshotFile)
+                    .build();
+        }
+
+        Duration migrationTime = migrate(flyway);
+        MigrationSnapshot taken = MigrationSnapshot.take(dataSource, catalog, fingerprint, migrationTime);
+        MIGRATION_SNAPSHOTS.put(snapshotKey, taken);
+        if (snapshotFile != null) {
+            taken.write(snapshotFile);
+        }
+        return MigrationMetrics.builder()
+                .catalog(catalog)
+                .fingerprint(fingerprint)
+                .migrationTime(migrationTime)
+                .snapshotFile(snapshotFile)
+                .build();
+    }
+
+    /**
+     * Forget the snapshots kept in the JVM, as if the next test class was run by a new JVM.
+     */
+    static void clearMigrationSnapshots() {
+        MIGRATION_SNAPSHOTS.clear();
+    }
+
+    private static Duration migrate(Flyway flyway) {
+        long start = System.nanoTime();
+        flyway.migrate();
+        return Duration.ofNanos(System.nanoTime() - start);
+    }
+
     @Override
     public void beforeEach(ExtensionContext context) {
         String catalog = getContextCatalog(context);
@@ -76,6 +208,28 @@ public final class WithDatabaseLoaded implements BeforeAllCallback, BeforeEachCa
         }
     }
 
+    @Override
+    public boolean supportsParameter(ParameterContext parameterContext, ExtensionContext extensionContext) {
+        Class<?> type = parameterContext.getParameter().getType();
+        return MigrationMetrics.class.equals(type)
+                && getContextCatalog(extensionContext).equals(getCatalogForParameter(parameterContext, extensionContext));
+    }
+
+    @Override
+    public Object resolveParameter(ParameterContext parameterContext, ExtensionContext extensionContext) {
+        Class<?> type = parameterContext.getParameter().getType();
+        if (MigrationMetrics.class.equals(type)) {
+            return getStore(extensionContext).get(P_METRICS + getCatalogForParameter(parameterContext, extensionContext));
+        }
+        throw new IllegalStateException(getClass().getName() + " must be static and package-protected !");
+    }
+
+    private String getCatalogForParameter(ParameterContext parameterContext, ExtensionContext extensionContext) {
+        return parameterContext.findAnnotation(Named.class)
+                .map(Named::value)
+                .orElseGet(() -> getContextCatalog(extensionContext));
+    }
+
     private ExtensionContext.Store getStore(ExtensionContext context) {
         return context.getStore(ExtensionContext.Namespace.create(getClass().getName()));
     }
@@ -94,6 +248,8 @@ public final class WithDatabaseLoaded implements BeforeAllCallback, BeforeEachCa
     public static class WithDatabaseLoadedBuilder {
         private DatasourceExtension wDatasource;
         private Location location = null;
+        private boolean migrationCache = false;
+        private Path snapshotDirectory = null;
 
         /**
          * <p>Allow to link the {@link DatasourceExtension} with the {@link WithDatabaseLoaded}. The Flyway migrations
@@ -139,6 +295,46 @@ public final class WithDatabaseLoaded implements BeforeAllCallback, BeforeEachCa
             return this;
         }
 
+        /**
+         * <p>Keep a JVM-wide snapshot of the migrated catalog and restore it in place of the Flyway migration for
+         * the next test classes using the same catalog and migrations location.</p>
+         *
+         * <p>The snapshot is taken with the H2 {@code SCRIPT} command and is invalidated when the checksum of a
+         * migration changes. By default, the migrations are run for each test class.</p>
+         *
+         * @return The current builder
+         */
+        public WithDatabaseLoadedBuilder enableMigrationCache() {
+            this.migrationCache = true;
+            return this;
+        }
+
+        /**
+         * <p>Enable the migration cache and persist the snapshots in {@code target/testy-migration-snapshots}.</p>
+         *
+         * @return The current builder
+         * @see #enablePersistentMigrationCache(Path)
+         */
+        public WithDatabaseLoadedBuilder enablePersistentMigrationCache() {
+            return enablePersistentMigrationCache(Path.of("target", "testy-migration-snapshots"));
+        }
+
+        /**
+         * <p>Enable the migration cache and persist the snapshots as script files in the given directory.</p>
+         *
+         * <p>A JVM without snapshot for the catalog restores the script file with the H2 {@code RUNSCRIPT} command
+         * instead of running the Flyway migration. The file name contains a hash of the migrations and of the H2
+         * version, the files of the outdated migrations are never restored and can be deleted.</p>
+         *
+         * @param directory The directory of the snapshot files, created if needed
+         * @return The current builder
+         */
+        public WithDatabaseLoadedBuilder enablePersistentMigrationCache(Path directory) {
+            this.migrationCache = true;
+            this.snapshotDirectory = Objects.requireNonNull(directory, "The snapshot directory was mandatory !");
+            return this;
+        }
+
         /**
          * Build the {@link WithDatabaseLoaded} extension
          *
@@ -146,7 +342,7 @@ public final class WithDatabaseLoaded implements BeforeAllCallback, BeforeEachCa
          */
         public WithDatabaseLoaded build() {
             Objects.requireNonNull(wDatasource, "A DataSource extension was mandatory !");
-            return new WithDatabaseLoaded(wDatasource, location);
+            return new WithDatabaseLoaded(wDatasource, location, migrationCache, snapshotDirectory);
         }
     }
 }
@@ -1,11 +1,15 @@
 package fr.ght1pc9kc.testy.jooq;
 
+import fr.ght1pc9kc.testy.jooq.annotations.ReactiveDsl;
 import org.jooq.DSLContext;
+import org.jooq.ExecuteListener;
 import org.jooq.SQLDialect;
 import org.jooq.conf.RenderNameCase;
 import org.jooq.conf.Settings;
 import org.jooq.impl.DSL;
+import org.jooq.impl.DefaultConfiguration;
 import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
 import org.junit.jupiter.api.extension.ExtensionContext;
 import org.junit.jupiter.api.extension.ExtensionContext.Namespace;
 import org.junit.jupiter.api.extension.ExtensionContext.Store;
@@ -14,6 +18,9 @@ import org.junit.jupiter.api.extension.ParameterResolver;
 
 import javax.inject.Named;
 import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 
 
@@ -33,18 +40,27 @@ import java.util.Objects;
  * <p>
  * The default value for {@link SQLDialect} is {@link SQLDialect#H2}
  * </p>
+ * <p>
+ * With {@code enableQueryStats}, each statement executed during a test is recorded in a {@link QueryStats}, injectable
+ * as parameter, to detect the N+1 selects problems.
+ * </p>
  */
-public final class WithDslContext implements BeforeAllCallback, ParameterResolver {
+public final class WithDslContext implements BeforeAllCallback, BeforeTestExecutionCallback, ParameterResolver {
 
     private static final String P_DSL_CONTEXT = "dslContext";
     private static final String P_DSL_DIALECT = "dslDialect";
+    private static final String P_DSL_CONNECTIONS = "dslConnections";
+    private static final String P_DSL_WRITES = "dslWrites";
+    private static final String P_DSL_QUERY_STATS = "dslQueryStats";
 
     private final DatasourceExtension wDs;
     private final SQLDialect dialect;
+    private final boolean queryStats;
 
-    private WithDslContext(DatasourceExtension wDs, SQLDialect dialect) {
+    private WithDslContext(DatasourceExtension wDs, SQLDialect dialect, boolean queryStats) {
         this.wDs = wDs;
         this.dialect = dialect;
+        this.queryStats = queryStats;
     }
 
     @Override
@@ -55,19 +71,43 @@ public final class WithDslContext implements BeforeAllCallback, ParameterResolve
         settings.setRenderNameCase(RenderNameCase.UPPER);
         settings.setRenderSchema(false);
 
-        DSLContext dslContext = DSL.using(ds, dialect, settings);
-
+        PinnableConnectionProvider connections = new PinnableConnectionProvider(ds);
+        WriteTrackingListener writes = new WriteTrackingListener();
+        List<ExecuteListener> listeners = new ArrayList<>(List.of(writes));
         final String catalog = getContextCatalog(context);
+        if (queryStats) {
+            QueryStats stats = new QueryStats();
+            listeners.add(new QueryStatsListener(stats));
+            getStore(context).put(P_DSL_QUERY_STATS + catalog, stats);
+        }
+        DSLContext dslContext = DSL.using(new DefaultConfiguration()
+                .set(connections)
+                .set(connections.transactionProvider())
+                .set(dialect)
+                .set(settings)
+                .set(listeners.toArray(ExecuteListener[]::new)));
+
+        getStore(context).put(P_DSL_CONNECTIONS + catalog, connections);
+        getStore(context).put(P_DSL_WRITES + catalog, writes);
         getStore(context).put(P_DSL_DIALECT + catalog, dialect);
         getStore(context).put(P_DSL_CONTEXT + catalog, dslContext);
     }
 
+    @Override
+    public void beforeTestExecution(ExtensionContext context) {
+        QueryStats stats = getStore(context).get(P_DSL_QUERY_STATS + getContextCatalog(context), QueryStats.class);
+        if (stats != null) {
+            stats.clear();
+        }
+    }
+
     @Override
     public boolean supportsParameter(ParameterContext parameterContext, ExtensionContext extensionContext) {
         Class<?> type = parameterContext.getParameter().getType();
         final String catalog = getContextCatalog(extensionContext);
 
-        return (DSLContext.class.equals(type) || SQLDialect.class.equals(type))
+        return (DSLContext.class.equals(type) || SQLDialect.class.equals(type) || (queryStats && QueryStats.class.equals(type)))
+                && !parameterContext.isAnnotated(ReactiveDsl.class)
                 && catalog.equals(getCatalogForParameter(parameterContext, extensionContext));
     }
 
@@ -90,6 +130,9 @@ public final class WithDslContext implements BeforeAllCallback, ParameterResolve
 
         } else if (SQLDialect.class.equals(type)) {
             return getStore(extensionContext).get(P_DSL_DIALECT + catalog);
+
+        } else if (QueryStats.class.equals(type)) {
+            return getStore(extensionContext).get(P_DSL_QUERY_STATS + catalog);
         }
 
         throw new IllegalStateException(getClass().getName() + " must be static and package-protected !");
@@ -104,6 +147,39 @@ public final class WithDslContext implements BeforeAllCallback, ParameterResolve
         return getStore(context).get(P_DSL_CONTEXT + catalog, DSLContext.class);
     }
 
+    /**
+     * Retrieve the tracker of the tables written through the {@link DSLContext}.
+     *
+     * @param context The extension context
+     * @return The write tracker of the context catalog
+     */
+    WriteTrackingListener getWriteTracker(ExtensionContext context) {
+        final String catalog = getContextCatalog(context);
+        return getStore(context).get(P_DSL_WRITES + catalog, WriteTrackingListener.class);
+    }
+
+    /**
+     * Route all the statements of the {@link DSLContext} through the given connection until
+     * {@link #unpinConnection(ExtensionContext)} was called.
+     *
+     * @param context    The extension context
+     * @param connection The connection to use, its transaction is managed by the caller
+     */
+    void pinConnection(ExtensionContext context, Connection connection) {
+        final String catalog = getContextCatalog(context);
+        getStore(context).get(P_DSL_CONNECTIONS + catalog, PinnableConnectionProvider.class).pin(connection);
+    }
+
+    /**
+     * Restore the {@link DSLContext} on the {@link DataSource} connections.
+     *
+     * @param context The extension context
+     */
+    void unpinConnection(ExtensionContext context) {
+        final String catalog = getContextCatalog(context);
+        getStore(context).get(P_DSL_CONNECTIONS + catalog, PinnableConnectionProvider.class).unpin();
+    }
+
     private Store getStore(ExtensionContext context) {
         return context.getStore(Namespace.create(getClass().getName()));
     }
@@ -115,6 +191,7 @@ public final class WithDslContext implements BeforeAllCallback, ParameterResolve
     public static class WithDslContextBuilder {
         private DatasourceExtension wDs;
         private SQLDialect dialect = SQLDialect.H2;
+        private boolean queryStats = false;
 
         public WithDslContextBuilder setDatasourceExtension(DatasourceExtension wDs) {
             this.wDs = wDs;
@@ -126,9 +203,22 @@ public final class WithDslContext implements BeforeAllCallback, ParameterResolve
             return this;
         }
 
+        /**
+         * Record the statements executed during each test, with their SQL, bind count, execution time, fetched rows
+         * and calling code. The statistics are injectable as a {@link QueryStats} parameter.
+         * <p>
+         * By default, the statements are not recorded.
+         *
+         * @return the builder instance
+         */
+        public WithDslContextBuilder enableQueryStats() {
+            this.queryStats = true;
+            return this;
+        }
+
         public WithDslContext build() {
             Objects.requireNonNull(wDs, "DataSource is mandatory for building DSLContext !");
-            return new WithDslContext(wDs, dialect);
+            return new WithDslContext(wDs, dialect, queryStats);
         }
     }
 }
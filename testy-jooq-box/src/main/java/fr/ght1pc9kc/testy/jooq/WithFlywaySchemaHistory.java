@@ -24,7 +24,9 @@ import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
@@ -78,12 +80,18 @@ import java.util.concurrent.atomic.AtomicInteger;
  *             .append(wFlywayHistory)
  *             .register();
  * </code></pre>
+ * <p>The versions are inserted once. Before each test, a row count and a hash of the table content are compared with
+ * the ones of the inserted versions, the table is rewritten only if a test altered it. The table is also kept as is
+ * for the next test classes declaring the same versions on the same database.</p>
  */
 public final class WithFlywaySchemaHistory implements BeforeAllCallback, BeforeEachCallback {
 
     @VisibleForTesting
     static final String DEFAULT_TABLE_NAME = new ClassicConfiguration().getTable();
 
+    private static final Map<List<Object>, String> HISTORY_HASHES = new ConcurrentHashMap<>();
+    private static final String P_HISTORY_HASH = "flywayHistoryHash_";
+
     private final DatasourceExtension dataSourceExtension;
     private final List<FlywayVersion> versions;
     private final String tableName;
@@ -101,8 +109,16 @@ public final class WithFlywaySchemaHistory implements BeforeAllCallback, BeforeE
         final DSLContext dslContext = DSL.using(dataSource, SQLDialect.H2);
         final FlywayTable flywayTable = getFlywayTable(extensionContext);
 
-        dslContext.dropTableIfExists(flywayTable).execute();
-        dslContext.createTable(flywayTable).columns(flywayTable.allFields).execute();
+        final List<Object> historyKey = List.of(flywayTable.getSchema().getName(), tableName, versions);
+        String expectedHash = HISTORY_HASHES.get(historyKey);
+        if (expectedHash == null || !expectedHash.equals(contentHash(dslContext, flywayTable))) {
+            dslContext.dropTableIfExists(flywayTable).execute();
+            dslContext.createTable(flywayTable).columns(flywayTable.allFields).execute();
+            insertVersions(dslContext, flywayTable);
+            expectedHash = contentHash(dslContext, flywayTable);
+            HISTORY_HASHES.put(historyKey, expectedHash);
+        }
+        getStore(extensionContext).put(P_HISTORY_HASH + flywayTable.getSchema().getName(), expectedHash);
     }
 
     @Override
@@ -112,8 +128,24 @@ public final class WithFlywaySchemaHistory implements BeforeAllCallback, BeforeE
 
         final DSLContext dslContext = DSL.using(dataSource, SQLDialect.H2);
 
-        dslContext.deleteFrom(flywayTable).execute();
+        final String expectedHash = getStore(extensionContext).get(P_HISTORY_HASH + flywayTable.getSchema().getName(), String.class);
+        final String actualHash = contentHash(dslContext, flywayTable);
+        if (actualHash != null && actualHash.equals(expectedHash)) {
+            return;
+        }
+
+        if (actualHash == null) {
+            dslContext.createTable(flywayTable).columns(flywayTable.allFields).execute();
+        } else {
+            dslContext.deleteFrom(flywayTable).execute();
+        }
+        insertVersions(dslContext, flywayTable);
+    }
 
+    private void insertVersions(DSLContext dslContext, FlywayTable flywayTable) {
+        if (versions.isEmpty()) {
+            return;
+        }
         final AtomicInteger installedRank = new AtomicInteger();
         final InsertValuesStepN<Record> query = dslContext.insertInto(flywayTable)
                 .columns(flywayTable.allFields);
@@ -132,6 +164,29 @@ public final class WithFlywaySchemaHistory implements BeforeAllCallback, BeforeE
         query.execute();
     }
 
+    /**
+     * Compute the row count and a H2 {@code HASH} of the content of the history table.
+     *
+     * @return The content hash, {@code null} if the table does not exist
+     */
+    private static String contentHash(DSLContext dslContext, FlywayTable flywayTable) {
+        boolean exists = dslContext.fetchExists(DSL.selectOne()
+                .from("INFORMATION_SCHEMA.TABLES")
+                .where(DSL.field("TABLE_SCHEMA").eq(flywayTable.getSchema().getName()))
+                .and(DSL.field("TABLE_NAME").eq(flywayTable.getName())));
+        if (!exists) {
+            return null;
+        }
+        Record result = dslContext.fetchOne("SELECT COUNT(*), RAWTOHEX(HASH('SHA-256', "
+                        + "LISTAGG(CAST(ROW({0}) AS VARCHAR), ';') WITHIN GROUP (ORDER BY {1}))) FROM {2}",
+                DSL.list(flywayTable.allFields), flywayTable.installedRank, flywayTable);
+        return Objects.requireNonNull(result).get(0) + ":" + result.get(1);
+    }
+
+    private ExtensionContext.Store getStore(ExtensionContext context) {
+        return context.getStore(ExtensionContext.Namespace.create(getClass().getName()));
+    }
+
     private DataSource getDataSource(ExtensionContext context) {
         return Objects.requireNonNull(dataSourceExtension.getDataSource(context), "DataSource not found in Store !");
     }
@@ -1,8 +1,12 @@
 package fr.ght1pc9kc.testy.jooq;
 
 import fr.ght1pc9kc.testy.jooq.annotations.DbCatalogName;
+import fr.ght1pc9kc.testy.jooq.model.DatabaseStorageMode;
 import fr.ght1pc9kc.testy.jooq.model.DatabaseTraceLevel;
+import org.h2.engine.Constants;
 import org.h2.jdbcx.JdbcDataSource;
+import org.h2.store.fs.FileUtils;
+import org.h2.tools.DeleteDbFiles;
 import org.h2.tools.Server;
 import org.junit.jupiter.api.extension.AfterAllCallback;
 import org.junit.jupiter.api.extension.BeforeAllCallback;
@@ -16,6 +20,13 @@ import org.slf4j.LoggerFactory;
 
 import javax.inject.Named;
 import javax.sql.DataSource;
+import java.nio.file.Files;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Objects;
 import java.util.TimeZone;
 import java.util.UUID;
@@ -47,6 +58,28 @@ import java.util.UUID;
  * <p>
  * For inject the auto-generated catalog name use {@link DbCatalogName} annotation
  * </p>
+ * <p>
+ * By default, each connection opens a new H2 session and runs the {@code INIT} script. With {@code usePool}, the
+ * connections are taken from a bounded {@link PooledDataSource}, injectable as {@code DataSource} or as
+ * {@code PooledDataSource} to read the pool statistics.
+ * </p>
+ * <pre><code>
+ *     {@literal @}RegisterExtension
+ *     static WithInMemoryDatasource wDs = WithInMemoryDatasource.builder()
+ *             .usePool(4)
+ *             .build();
+ * </code></pre>
+ * <p>
+ * Big data sets can be kept out of the Java heap with {@code setStorageMode}. H2 keeps its page cache on the heap, its
+ * size is set with {@code setCacheSize}.
+ * </p>
+ * <pre><code>
+ *     {@literal @}RegisterExtension
+ *     static WithInMemoryDatasource wDs = WithInMemoryDatasource.builder()
+ *             .setStorageMode(DatabaseStorageMode.NIO_MEMORY)
+ *             .setCacheSize(8 * 1024)
+ *             .build();
+ * </code></pre>
  *
  * @see DbCatalogName
  */
@@ -55,26 +88,50 @@ public class WithInMemoryDatasource implements BeforeAllCallback, AfterAllCallba
     private static final TimeZone TZ_UTC = TimeZone.getTimeZone("UTC");
 
     private static final String P_DATASOUCE = "datasource_";
-    private static final String P_TCP_SERVER = "tcpServer";
+    private static final String P_TCP_SERVER = "tcpServer_";
     private static final String P_CATALOG = "catalog_";
+    private static final String P_STORAGE_PATH = "storagePath_";
+    private static final String P_WORKER_DATABASE = "workerDatabase_";
+    private static final Duration DEFAULT_POOL_TIMEOUT = Duration.ofSeconds(30);
 
     private final String catalog;
     private final boolean withTcpServer;
+    private final int tcpPort;
     private final boolean withReferentialIntegrity;
     private final DatabaseTraceLevel traceLevel;
+    private final int poolSize;
+    private final Duration poolTimeout;
+    private final DatabaseStorageMode storageMode;
+    private final Map<String, String> settings;
+    private final boolean databasePerWorker;
 
     public WithInMemoryDatasource() {
         this.catalog = generateRandomCatalogName();
         this.withTcpServer = false;
+        this.tcpPort = Constants.DEFAULT_TCP_PORT;
         this.withReferentialIntegrity = true;
         this.traceLevel = DatabaseTraceLevel.OFF;
+        this.poolSize = 0;
+        this.poolTimeout = DEFAULT_POOL_TIMEOUT;
+        this.storageMode = DatabaseStorageMode.MEMORY;
+        this.settings = Map.of();
+        this.databasePerWorker = false;
     }
 
-    private WithInMemoryDatasource(String catalog, boolean withTcpServer, boolean withReferentialIntegrity, DatabaseTraceLevel traceLevel) {
+    private WithInMemoryDatasource(String catalog, boolean withTcpServer, int tcpPort, boolean withReferentialIntegrity,
+                                   DatabaseTraceLevel traceLevel, int poolSize, Duration poolTimeout,
+                                   DatabaseStorageMode storageMode, Map<String, String> settings,
+                                   boolean databasePerWorker) {
         this.catalog = Objects.requireNonNull(catalog);
         this.withTcpServer = withTcpServer;
+        this.tcpPort = tcpPort;
         this.withReferentialIntegrity = withReferentialIntegrity;
         this.traceLevel = traceLevel;
+        this.poolSize = poolSize;
+        this.poolTimeout = Objects.requireNonNull(poolTimeout);
+        this.storageMode = Objects.requireNonNull(storageMode);
+        this.settings = Map.copyOf(settings);
+        this.databasePerWorker = databasePerWorker;
     }
 
     @Override
@@ -82,22 +139,42 @@ public class WithInMemoryDatasource implements BeforeAllCallback, AfterAllCallba
         TimeZone.setDefault(TZ_UTC);
         Store store = getStore(context);
 
+        String database = catalog;
+        if (databasePerWorker) {
+            database = WorkerDatabasePool.lease(catalog);
+            store.put(P_WORKER_DATABASE + catalog, database);
+            LOGGER.debug("H2 database {} leased for catalog {}", database, catalog);
+        }
+
+        String databasePath = switch (storageMode) {
+            case MEMORY, NIO_MEMORY, NIO_MEMORY_COMPRESSED -> storageMode.urlPrefix + database;
+            case TEMPORARY_FILE -> storageMode.urlPrefix + Files.createTempDirectory("testy-h2-").resolve(database);
+        };
+        if (storageMode != DatabaseStorageMode.MEMORY) {
+            store.put(P_STORAGE_PATH + catalog, databasePath);
+        }
+
+        StringBuilder tuning = new StringBuilder();
+        settings.forEach((key, value) -> tuning.append(key).append('=').append(value).append(';'));
+
         JdbcDataSource ds = new JdbcDataSource();
-        String databaseUrl = "jdbc:h2:mem:" + catalog + ";"
+        String databaseUrl = "jdbc:h2:" + databasePath + ";"
                 + "MODE=MySQL;DB_CLOSE_DELAY=-1;DATABASE_TO_UPPER=false;"
                 + "TRACE_LEVEL_SYSTEM_OUT=" + traceLevel.levelValue + ";"
+                + tuning
                 + "INIT=CREATE SCHEMA IF NOT EXISTS " + catalog + "\\; "
                 + "SET SCHEMA " + catalog + "\\; "
                 + "SET REFERENTIAL_INTEGRITY " + Boolean.toString(withReferentialIntegrity).toUpperCase();
         ds.setURL(databaseUrl);
         if (withTcpServer) {
-            Server h2TcpServer = Server.createTcpServer("-tcpAllowOthers");
-            Server server = h2TcpServer.start();
-            LOGGER.info("H2 tcp server started on port: {}", server.getPort());
-            store.put(P_TCP_SERVER, h2TcpServer);
+            store.put(P_TCP_SERVER + catalog, SharedTcpServer.of(context).acquire(tcpPort));
         }
 
-        store.put(P_DATASOUCE + catalog, ds);
+        if (poolSize > 0) {
+            store.put(P_DATASOUCE + catalog, new PooledDataSource(ds, poolSize, poolTimeout));
+        } else {
+            store.put(P_DATASOUCE + catalog, ds);
+        }
         store.put(P_CATALOG + catalog, catalog);
     }
 
@@ -112,11 +189,35 @@ public class WithInMemoryDatasource implements BeforeAllCallback, AfterAllCallba
     }
 
     @Override
-    public void afterAll(ExtensionContext context) {
+    public void afterAll(ExtensionContext context) throws SQLException {
         Store store = getStore(context);
-        Server tcpServer = store.get(P_TCP_SERVER, Server.class);
-        if (tcpServer != null) {
-            tcpServer.stop();
+        // The TCP server is kept for the next test classes
+        store.remove(P_TCP_SERVER + catalog);
+
+        // The leased databases are kept, with their data, for the next class
+        String workerDatabase = store.remove(P_WORKER_DATABASE + catalog, String.class);
+        if (workerDatabase == null) {
+            try (Connection conn = getDataSource(context).getConnection();
+                 Statement statement = conn.createStatement()) {
+                statement.execute("SHUTDOWN");
+            }
+        }
+        String databasePath = store.remove(P_STORAGE_PATH + catalog, String.class);
+        if (store.get(P_DATASOUCE + catalog) instanceof PooledDataSource pool) {
+            store.remove(P_DATASOUCE + catalog);
+            pool.dispose();
+        }
+        if (databasePath != null) {
+            String directory = FileUtils.getParent(databasePath);
+            DeleteDbFiles.execute(directory, FileUtils.getName(databasePath), true);
+            if (storageMode == DatabaseStorageMode.TEMPORARY_FILE) {
+                FileUtils.deleteRecursive(directory, false);
+            }
+            LOGGER.debug("H2 database {} dropped from {}", databasePath, directory);
+        }
+
+        if (workerDatabase != null) {
+            WorkerDatabasePool.release(catalog, workerDatabase);
         }
     }
 
@@ -125,6 +226,8 @@ public class WithInMemoryDatasource implements BeforeAllCallback, AfterAllCallba
         Class<?> type = parameterContext.getParameter().getType();
         if (DataSource.class.equals(type)) {
             return catalog.equals(getCatalogForParameter(parameterContext));
+        } else if (PooledDataSource.class.equals(type)) {
+            return poolSize > 0 && catalog.equals(getCatalogForParameter(parameterContext));
         } else if (Server.class.equals(type)) {
             return catalog.equals(getCatalogForParameter(parameterContext));
         } else {
@@ -144,8 +247,10 @@ public class WithInMemoryDatasource implements BeforeAllCallback, AfterAllCallba
         Class<?> type = parameterContext.getParameter().getType();
         if (DataSource.class.equals(type)) {
             return getStore(extensionContext).get(P_DATASOUCE + getCatalogForParameter(parameterContext), DataSource.class);
+        } else if (PooledDataSource.class.equals(type)) {
+            return getStore(extensionContext).get(P_DATASOUCE + getCatalogForParameter(parameterContext), PooledDataSource.class);
         } else if (Server.class.equals(type)) {
-            return getStore(extensionContext).get(P_TCP_SERVER, Server.class);
+            return getStore(extensionContext).get(P_TCP_SERVER + getCatalogForParameter(parameterContext), Server.class);
         } else if (String.class.equals(type) && parameterContext.isAnnotated(DbCatalogName.class)) {
             return getStore(extensionContext).get(P_CATALOG + getCatalogForParameter(parameterContext));
         }
@@ -169,19 +274,52 @@ public class WithInMemoryDatasource implements BeforeAllCallback, AfterAllCallba
     public static class WithInMemoryDatasourceBuilder {
         private String catalog = generateRandomCatalogName();
         private boolean withTcpServer = false;
+        private int tcpPort = Constants.DEFAULT_TCP_PORT;
         private boolean withReferentialIntegrity = true;
         private DatabaseTraceLevel traceLevel = DatabaseTraceLevel.OFF;
+        private int poolSize = 0;
+        private Duration poolTimeout = DEFAULT_POOL_TIMEOUT;
+        private DatabaseStorageMode storageMode = DatabaseStorageMode.MEMORY;
+        private final Map<String, String> settings = new LinkedHashMap<>();
+        private boolean databasePerWorker = false;
 
         public WithInMemoryDatasourceBuilder setCatalog(String catalog) {
             this.catalog = catalog;
             return this;
         }
 
+        /**
+         * Expose the in-memory databases through the H2 TCP server.
+         * <p>
+         * The server is shared by all the catalogs and test classes of the JVM, started by the first one and stopped
+         * after the last one. It can be injected as a {@link Server} parameter.
+         *
+         * @param withTcpServer {@code true} to use the TCP server
+         * @return the builder instance
+         */
         public WithInMemoryDatasourceBuilder wrapTcpServer(boolean withTcpServer) {
             this.withTcpServer = withTcpServer;
             return this;
         }
 
+        /**
+         * Choose the port of the shared H2 TCP server, {@code 0} for any free port. Only used by the catalog starting
+         * the server, the others fail if the running server does not match an explicit port.
+         * <p>
+         * By default, the H2 default port {@value Constants#DEFAULT_TCP_PORT} is used.
+         *
+         * @param port The server port
+         * @return the builder instance
+         * @see #wrapTcpServer(boolean)
+         */
+        public WithInMemoryDatasourceBuilder setTcpServerPort(int port) {
+            if (port < 0) {
+                throw new IllegalArgumentException("Invalid TCP port " + port + " !");
+            }
+            this.tcpPort = port;
+            return this;
+        }
+
         public WithInMemoryDatasourceBuilder setReferentialIntegrity(boolean integrity) {
             this.withReferentialIntegrity = integrity;
             return this;
@@ -192,8 +330,123 @@ public class WithInMemoryDatasource implements BeforeAllCallback, AfterAllCallba
             return this;
         }
 
+        /**
+         * Take the connections from a bounded pool instead of opening a new H2 session each time.
+         * <p>
+         * The physical connections are reused, saving the session creation and the {@code INIT} script on each
+         * connection. By default, no pool is used.
+         *
+         * @param maxConnections The maximum number of connections held by the pool
+         * @return the builder instance
+         */
+        public WithInMemoryDatasourceBuilder usePool(int maxConnections) {
+            if (maxConnections <= 0) {
+                throw new IllegalArgumentException("The pool size must be positive !");
+            }
+            this.poolSize = maxConnections;
+            return this;
+        }
+
+        /**
+         * Maximum time to wait for a free connection when the pool is exhausted, rounded to the second.
+         * Default to 30 seconds.
+         *
+         * @param timeout The maximum wait time
+         * @return the builder instance
+         */
+        public WithInMemoryDatasourceBuilder setPoolTimeout(Duration timeout) {
+            this.poolTimeout = Objects.requireNonNull(timeout);
+            return this;
+        }
+
+        /**
+         * Choose where H2 stores the data. The off-heap and file modes avoid growing the Java heap, and the GC
+         * pauses, with big data sets. The database is dropped after all tests, the off-heap and file ones with
+         * their storage.
+         * <p>
+         * Default to {@link DatabaseStorageMode#MEMORY}.
+         *
+         * @param storageMode The storage of the database
+         * @return the builder instance
+         */
+        public WithInMemoryDatasourceBuilder setStorageMode(DatabaseStorageMode storageMode) {
+            this.storageMode = Objects.requireNonNull(storageMode);
+            return this;
+        }
+
+        /**
+         * Set the size of the H2 page cache. This cache stays on the Java heap whatever the storage mode.
+         *
+         * @param kilobytes The cache size in KB
+         * @return the builder instance
+         */
+        public WithInMemoryDatasourceBuilder setCacheSize(int kilobytes) {
+            return setDatabaseSetting("CACHE_SIZE", Integer.toString(kilobytes));
+        }
+
+        /**
+         * Set how long a statement waits for a lock held by another session before failing with a lock timeout.
+         * <p>
+         * By default, the H2 timeout of 1 second.
+         *
+         * @param timeout The lock timeout, with a millisecond precision
+         * @return the builder instance
+         */
+        public WithInMemoryDatasourceBuilder setLockTimeout(Duration timeout) {
+            return setDatabaseSetting("LOCK_TIMEOUT", Long.toString(timeout.toMillis()));
+        }
+
+        /**
+         * Set the H2 lock mode. {@code 0} disables the locks, for the tests only, the other values keep the row level
+         * locks of the MVStore.
+         * <p>
+         * By default, the H2 lock mode {@code 3}.
+         *
+         * @param lockMode The H2 lock mode
+         * @return the builder instance
+         */
+        public WithInMemoryDatasourceBuilder setLockMode(int lockMode) {
+            return setDatabaseSetting("LOCK_MODE", Integer.toString(lockMode));
+        }
+
+        /**
+         * Add a setting to the database URL, as {@code RETENTION_TIME} or {@code MAX_COMPACT_TIME} to tune the
+         * MVStore.
+         *
+         * @param name  The H2 setting name
+         * @param value The setting value
+         * @return the builder instance
+         */
+        public WithInMemoryDatasourceBuilder setDatabaseSetting(String name, String value) {
+            this.settings.put(Objects.requireNonNull(name).toUpperCase(), Objects.requireNonNull(value));
+            return this;
+        }
+
+        /**
+         * Give each test class running concurrently its own H2 database, for the JUnit parallel execution.
+         * <p>
+         * The catalog keeps the configured name in all the databases, only the H2 database name changes, as
+         * returned by {@code Connection#getCatalog()}. The databases are leased from a JVM-wide pool and given back
+         * after all tests of the class, keeping their schema and data for the next class.
+         * <p>
+         * Only available with the {@link DatabaseStorageMode#MEMORY} storage, the other modes drop the database after
+         * all tests of the class. The test methods of a class still share the same database and must not run
+         * concurrently.
+         *
+         * @return the builder instance
+         */
+        public WithInMemoryDatasourceBuilder leaseDatabasePerWorker() {
+            this.databasePerWorker = true;
+            return this;
+        }
+
         public WithInMemoryDatasource build() {
-            return new WithInMemoryDatasource(this.catalog, this.withTcpServer, this.withReferentialIntegrity, this.traceLevel);
+            if (databasePerWorker && storageMode != DatabaseStorageMode.MEMORY) {
+                throw new IllegalStateException("Leased databases are only available with the MEMORY storage mode, "
+                        + storageMode + " drops the database after the class !");
+            }
+            return new WithInMemoryDatasource(this.catalog, this.withTcpServer, this.tcpPort, this.withReferentialIntegrity, this.traceLevel,
+                    this.poolSize, this.poolTimeout, this.storageMode, this.settings, this.databasePerWorker);
         }
     }
 }
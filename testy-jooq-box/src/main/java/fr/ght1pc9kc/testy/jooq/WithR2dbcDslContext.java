@@ -0,0 +1,271 @@
+package fr.ght1pc9kc.testy.jooq;
+
+import fr.ght1pc9kc.testy.jooq.annotations.ReactiveDsl;
+import io.r2dbc.spi.Closeable;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import io.r2dbc.spi.Option;
+import lombok.extern.slf4j.Slf4j;
+import org.jooq.DSLContext;
+import org.jooq.SQLDialect;
+import org.jooq.conf.RenderNameCase;
+import org.jooq.conf.Settings;
+import org.jooq.impl.DSL;
+import org.junit.jupiter.api.extension.AfterAllCallback;
+import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.ExtensionContext.Namespace;
+import org.junit.jupiter.api.extension.ExtensionContext.Store;
+import org.junit.jupiter.api.extension.ParameterContext;
+import org.junit.jupiter.api.extension.ParameterResolver;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import javax.inject.Named;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Provide a reactive {@link DSLContext}, running on R2DBC connections to the in-memory database of a
+ * {@link WithInMemoryDatasource}.
+ * <p>
+ * The schema, the Flyway migrations and the sample data stay managed through the JDBC {@code DataSource}, the tests
+ * reach the same catalog through the non-blocking R2DBC driver. The driver is discovered with
+ * {@link ConnectionFactories} and is not brought by testy: {@code io.r2dbc:r2dbc-h2}, and {@code io.r2dbc:r2dbc-pool}
+ * if a pool is used, must be added to the test dependencies of the project.
+ *
+ * <pre><code>
+ * private static final WithInMemoryDatasource wDataSource = WithInMemoryDatasource.builder()
+ *         .setCatalog("my_catalog")
+ *         .build();
+ * private static final WithDatabaseLoaded wDatabaseLoaded = WithDatabaseLoaded.builder()
+ *         .setDatasourceExtension(wDataSource)
+ *         .build();
+ * private static final WithR2dbcDslContext wReactiveDsl = WithR2dbcDslContext.builder()
+ *         .setDatasourceExtension(wDataSource)
+ *         .usePool(4)
+ *         .build();
+ *
+ * {@literal @}RegisterExtension
+ * static final ChainedExtension chain = ChainedExtension
+ *         .outer(wDataSource)
+ *         .append(wDatabaseLoaded)
+ *         .append(wReactiveDsl)
+ *         .register();
+ *
+ * {@literal @}Test
+ * void should_find_users({@literal @}ReactiveDsl DSLContext dsl) {
+ *     StepVerifier.create(Flux.from(dsl.selectFrom(USERS)))
+ *             .expectNextCount(3)
+ *             .verifyComplete();
+ * }
+ * </code></pre>
+ * <p>
+ * The {@link DSLContext} parameter must be annotated with {@link ReactiveDsl}, to be distinguished from the one of
+ * {@link WithDslContext}. The {@link ConnectionFactory} can also be injected.
+ */
+@Slf4j
+public final class WithR2dbcDslContext implements BeforeAllCallback, AfterAllCallback, ParameterResolver {
+
+    private static final String P_R2DBC_FACTORY = "r2dbcConnectionFactory_";
+    private static final String P_R2DBC_DSL = "r2dbcDslContext_";
+    private static final Duration CLOSE_TIMEOUT = Duration.ofSeconds(10);
+
+    private final WithInMemoryDatasource wDs;
+    private final SQLDialect dialect;
+    private final int poolSize;
+
+    private WithR2dbcDslContext(WithInMemoryDatasource wDs, SQLDialect dialect, int poolSize) {
+        this.wDs = wDs;
+        this.dialect = dialect;
+        this.poolSize = poolSize;
+    }
+
+    @Override
+    public void beforeAll(ExtensionContext context) throws SQLException {
+        final String catalog = getContextCatalog(context);
+        DataSource ds = Objects.requireNonNull(wDs.getDataSource(context), "Datasource not found in Store !");
+
+        // The JDBC connection initializes the database and its schema before the R2DBC driver opens it
+        String database;
+        try (Connection connection = ds.getConnection()) {
+            if (!connection.getMetaData().getURL().startsWith("jdbc:h2:mem:")) {
+                throw new IllegalStateException("Only the MEMORY storage mode is supported with R2DBC !");
+            }
+            database = connection.getCatalog();
+        }
+
+        ConnectionFactory connectionFactory = createConnectionFactory(connectionOptions(database, catalog, poolSize));
+
+        Settings settings = new Settings();
+        settings.setRenderNameCase(RenderNameCase.UPPER);
+        settings.setRenderSchema(false);
+
+        getStore(context).put(P_R2DBC_FACTORY + catalog, connectionFactory);
+        getStore(context).put(P_R2DBC_DSL + catalog, DSL.using(connectionFactory, dialect, settings));
+    }
+
+    @Override
+    public void afterAll(ExtensionContext context) throws InterruptedException {
+        final String catalog = getContextCatalog(context);
+        getStore(context).remove(P_R2DBC_DSL + catalog);
+        if (getStore(context).remove(P_R2DBC_FACTORY + catalog) instanceof Closeable pool) {
+            closePool(pool);
+        }
+    }
+
+    /**
+     * Close the pool and wait for its connections to be released, the pool of the next test class may reach the
+     * same database.
+     */
+    private static void closePool(Closeable pool) throws InterruptedException {
+        CountDownLatch closed = new CountDownLatch(1);
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        pool.close().subscribe(new Subscriber<Void>() {
+            @Override
+            public void onSubscribe(Subscription subscription) {
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(Void unused) {
+                // close does not emit
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                error.set(throwable);
+                closed.countDown();
+            }
+
+            @Override
+            public void onComplete() {
+                closed.countDown();
+            }
+        });
+        if (!closed.await(CLOSE_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)) {
+            log.warn("R2DBC pool not closed after {}", CLOSE_TIMEOUT);
+        } else if (error.get() != null) {
+            log.warn("Unable to close the R2DBC pool", error.get());
+        }
+    }
+
+    /**
+     * Build the R2DBC options reaching the same in-memory H2 database and schema than the JDBC {@code DataSource}.
+     *
+     * @param database The H2 database name
+     * @param catalog  The schema of the catalog
+     * @param poolSize The maximum number of pooled connections, {@code 0} for no pool
+     * @return The connection factory options
+     */
+    static ConnectionFactoryOptions connectionOptions(String database, String catalog, int poolSize) {
+        ConnectionFactoryOptions.Builder builder = ConnectionFactoryOptions.builder()
+                .option(ConnectionFactoryOptions.DATABASE, database)
+                .option(Option.valueOf("options"),
+                        "MODE=MySQL;DB_CLOSE_DELAY=-1;DATABASE_TO_UPPER=false;SCHEMA=" + catalog);
+        if (poolSize > 0) {
+            builder.option(ConnectionFactoryOptions.DRIVER, "pool")
+                    .option(ConnectionFactoryOptions.PROTOCOL, "h2:mem")
+                    .option(Option.valueOf("maxSize"), poolSize);
+        } else {
+            builder.option(ConnectionFactoryOptions.DRIVER, "h2")
+                    .option(ConnectionFactoryOptions.PROTOCOL, "mem");
+        }
+        return builder.build();
+    }
+
+    static ConnectionFactory createConnectionFactory(ConnectionFactoryOptions options) {
+        try {
+            return ConnectionFactories.get(options);
+        } catch (IllegalStateException e) {
+            throw new IllegalStateException("No R2DBC driver found for " + options
+                    + ", r2dbc-h2 (and r2dbc-pool with a pool) must be on the test classpath !", e);
+        }
+    }
+
+    @Override
+    public boolean supportsParameter(ParameterContext parameterContext, ExtensionContext extensionContext) {
+        Class<?> type = parameterContext.getParameter().getType();
+        final String catalog = getContextCatalog(extensionContext);
+
+        return (ConnectionFactory.class.equals(type)
+                || (DSLContext.class.equals(type) && parameterContext.isAnnotated(ReactiveDsl.class)))
+                && catalog.equals(getCatalogForParameter(parameterContext, extensionContext));
+    }
+
+    @Override
+    public Object resolveParameter(ParameterContext parameterContext, ExtensionContext extensionContext) {
+        Class<?> type = parameterContext.getParameter().getType();
+        final String catalog = getCatalogForParameter(parameterContext, extensionContext);
+        if (DSLContext.class.equals(type)) {
+            return getStore(extensionContext).get(P_R2DBC_DSL + catalog);
+
+        } else if (ConnectionFactory.class.equals(type)) {
+            return getStore(extensionContext).get(P_R2DBC_FACTORY + catalog);
+        }
+
+        throw new IllegalStateException(getClass().getName() + " must be static and package-protected !");
+    }
+
+    private String getCatalogForParameter(ParameterContext parameterContext, ExtensionContext extensionContext) {
+        return parameterContext.findAnnotation(Named.class)
+                .map(Named::value)
+                .orElseGet(() -> getContextCatalog(extensionContext));
+    }
+
+    private String getContextCatalog(ExtensionContext context) {
+        return Objects.requireNonNull(wDs.getCatalog(context), "Catalog not found in context Store !");
+    }
+
+    private Store getStore(ExtensionContext context) {
+        return context.getStore(Namespace.create(getClass().getName()));
+    }
+
+    public static WithR2dbcDslContextBuilder builder() {
+        return new WithR2dbcDslContextBuilder();
+    }
+
+    public static class WithR2dbcDslContextBuilder {
+        private WithInMemoryDatasource wDs;
+        private SQLDialect dialect = SQLDialect.H2;
+        private int poolSize = 0;
+
+        public WithR2dbcDslContextBuilder setDatasourceExtension(WithInMemoryDatasource wDs) {
+            this.wDs = wDs;
+            return this;
+        }
+
+        public WithR2dbcDslContextBuilder setDialect(SQLDialect dialect) {
+            this.dialect = dialect;
+            return this;
+        }
+
+        /**
+         * Pool the R2DBC connections with r2dbc-pool.
+         * <p>
+         * By default, each statement opens a new R2DBC connection.
+         *
+         * @param maxSize The maximum number of connections
+         * @return the builder instance
+         */
+        public WithR2dbcDslContextBuilder usePool(int maxSize) {
+            if (maxSize <= 0) {
+                throw new IllegalArgumentException("The pool size must be positive !");
+            }
+            this.poolSize = maxSize;
+            return this;
+        }
+
+        public WithR2dbcDslContext build() {
+            Objects.requireNonNull(wDs, "DataSource is mandatory for building DSLContext !");
+            return new WithR2dbcDslContext(wDs, dialect, poolSize);
+        }
+    }
+}
@@ -1,36 +1,58 @@
 package fr.ght1pc9kc.testy.jooq;
 
+import fr.ght1pc9kc.testy.jooq.model.FileDataSet;
 import fr.ght1pc9kc.testy.jooq.model.RelationalDataSet;
+import fr.ght1pc9kc.testy.jooq.model.SampleResetMode;
+import fr.ght1pc9kc.testy.jooq.model.StreamingRelationalDataSet;
 import org.jooq.CreateTableElementListStep;
 import org.jooq.DSLContext;
 import org.jooq.Key;
 import org.jooq.Query;
+import org.jooq.Table;
 import org.jooq.TableRecord;
 import org.jooq.UniqueKey;
 import org.jooq.impl.DSL;
+import org.junit.jupiter.api.extension.AfterAllCallback;
+import org.junit.jupiter.api.extension.AfterEachCallback;
 import org.junit.jupiter.api.extension.BeforeAllCallback;
 import org.junit.jupiter.api.extension.BeforeEachCallback;
 import org.junit.jupiter.api.extension.Extension;
 import org.junit.jupiter.api.extension.ExtensionContext;
 import org.junit.jupiter.api.extension.ParameterContext;
 import org.junit.jupiter.api.extension.ParameterResolver;
+import org.junit.jupiter.api.parallel.ExecutionMode;
 
 import javax.inject.Named;
+import java.sql.Connection;
+import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static java.util.Objects.nonNull;
 
 /**
  * This extension allows you to load test data into a previously created database.
  * <p>
- * These data are imported as a list of jOOQ records. The records are inserted in the same order they have been added
- * to the extension in order to consider the external key constraints.
+ * These data are imported as a list of jOOQ records. The tables are loaded in the order of their foreign keys, the
+ * referenced tables first, whatever the order the data sets have been added to the extension. The data sets of
+ * tables without dependency between them are inserted in the order they have been added.
  * <p>
- * It is possible to insert data in an empty database thanks to the createTablesIfNotExists option.
+ * It is possible to insert data in an empty database thanks to the createTablesIfNotExists option. The DDL is
+ * generated once per JVM for a set of tables and a dialect, and executed as a single batch.
  * <p>
  * The concerned tables are emptied and reloaded for each test to keep the consistency, however, for performance
  * reasons, if the data has not been modified during a test, a tracker allows to signal to the extension that it is
@@ -68,72 +90,335 @@ import static java.util.Objects.nonNull;
  *     // ...
  * }
  * </code></pre>
+ * <p>
+ * With the {@link SampleResetMode#ROLLBACK} mode, the records are loaded once and each test runs inside a transaction
+ * rolled back after the test. The {@code DSLContext} given by {@link WithDslContext} uses the connection holding
+ * this transaction. Statements executed directly through the {@code DataSource} are not rolled back. The test methods
+ * share this connection one after the other, the class must run with {@code @Execution(SAME_THREAD)} when the JUnit
+ * parallel execution is enabled.
+ * <pre><code>
+ * private static final WithSampleDataLoaded wSamples = WithSampleDataLoaded.builder(wDslContext)
+ *         .addDataset(UsersRecordSamples.SAMPLE)
+ *         .setResetMode(SampleResetMode.ROLLBACK)
+ *         .build();
+ * </code></pre>
+ * <p>
+ * Instead of using the tracker, the extension can also detect the writes executed through the {@code DSLContext} of
+ * {@link WithDslContext}. Only the written tables, and the tables of the data sets referencing them, are reloaded.
+ * <pre><code>
+ * private static final WithSampleDataLoaded wSamples = WithSampleDataLoaded.builder(wDslContext)
+ *         .addDataset(UsersRecordSamples.SAMPLE)
+ *         .reloadWrittenTablesOnly()
+ *         .build();
+ * </code></pre>
+ * <p>
+ * For large tables, the {@link SampleResetMode#TRUNCATE_INSERT} mode empties all the tables with {@code TRUNCATE} in
+ * a single round trip instead of one {@code DELETE} per table.
+ * <p>
+ * For large samples, the {@link SampleResetMode#ROW_DIFF} mode installs H2 triggers recording the changed rows,
+ * whatever the way they were written. Only these rows are restored before the next test.
  */
-public final class WithSampleDataLoaded implements BeforeAllCallback, BeforeEachCallback, ParameterResolver {
+public final class WithSampleDataLoaded implements BeforeAllCallback, AfterAllCallback, BeforeEachCallback, AfterEachCallback,
+        ParameterResolver {
     private static final String P_TRACKER = "sampleTracker_";
+    private static final String P_CONNECTION = "sampleConnection_";
+    private static final String P_ROW_DIFF = "sampleRowDiff_";
+    private static final String PARALLEL_ENABLED = "junit.jupiter.execution.parallel.enabled";
+    private static final Map<String, List<String>> CREATE_TABLES_DDL = new ConcurrentHashMap<>();
 
     private final WithDslContext wDsl;
 
+    private final List<SampleDataset> datasets;
     private final List<? extends TableRecord<?>> records;
+    private final List<Table<?>> tables;
     private final boolean createTables;
+    private final boolean skipMatchingTables;
+    private final SampleResetMode resetMode;
+    private final boolean writtenTablesOnly;
 
-    private WithSampleDataLoaded(Extension wDsl, List<? extends TableRecord<?>> records, boolean createTables) {
+    private WithSampleDataLoaded(Extension wDsl, List<SampleDataset> datasets, boolean createTables,
+                                 boolean skipMatchingTables, SampleResetMode resetMode, boolean writtenTablesOnly) {
         this.wDsl = (WithDslContext) wDsl;
-        this.records = List.copyOf(records);
+        // Own copies, the data sets records are shared with the other test classes which may run concurrently
+        List<SampleDataset> owned = datasets.stream()
+                .filter(d -> !d.isResident() || !d.records().isEmpty())
+                .map(d -> !d.isResident() ? d : SampleDataset.resident(
+                        d.records().stream().<TableRecord<?>>map(WithSampleDataLoaded::copyRecord).toList(),
+                        d.strategy()))
+                .toList();
+        this.tables = TableDependencies.sortByReferences(owned.stream().map(SampleDataset::table).distinct().toList());
+        this.datasets = coalesce(owned.stream()
+                .sorted(Comparator.comparingInt(d -> this.tables.indexOf(d.table())))
+                .toList());
+        checkDuplicateKeys(this.datasets);
+        this.records = this.datasets.stream()
+                .filter(SampleDataset::isResident)
+                .flatMap(d -> d.records().stream())
+                .toList();
         this.createTables = createTables;
+        this.skipMatchingTables = skipMatchingTables;
+        this.resetMode = resetMode;
+        this.writtenTablesOnly = writtenTablesOnly;
     }
 
     @Override
     public void beforeAll(ExtensionContext context) {
         final String catalog = getContextCatalog(context);
-        getStore(context).put(P_TRACKER + catalog, new Tracker());
+        Tracker tracker = new Tracker();
+        tracker.reloadRequired.set(true);
+        getStore(context).put(P_TRACKER + catalog, tracker);
         DSLContext dslContext = wDsl.getDslContext(context);
         dslContext.attach(records);
 
-        if (createTables) {
-            records.stream()
-                    .map(TableRecord::getTable)
-                    .distinct()
-                    .map(t -> {
-                        CreateTableElementListStep steps = dslContext.createTableIfNotExists(t)
-                                .columns(t.fields())
-                                .constraints(t.getKeys().stream().map(Key::constraint).toList());
-                        UniqueKey<?> pk = t.getPrimaryKey();
-                        if (nonNull(pk)) {
-                            return steps.primaryKey(pk.getFields());
-                        } else {
-                            return steps;
-                        }
-                    })
-                    .forEach(Query::execute);
+        if (createTables && !(skipMatchingTables && tablesMatchSchema(dslContext))) {
+            dslContext.batch(createTablesDdl(dslContext).toArray(String[]::new)).execute();
         }
+
+        if (resetMode == SampleResetMode.ROW_DIFF) {
+            getStore(context).put(P_ROW_DIFF + catalog, new RowDiffRestore(tables, records, fullReloadTables(), this::insertTable));
+        }
+    }
+
+    /**
+     * Render the {@code CREATE TABLE IF NOT EXISTS} statements of the tables, cached for the JVM by dialect and
+     * set of tables.
+     */
+    List<String> createTablesDdl(DSLContext dslContext) {
+        String key = dslContext.dialect() + ":" + tables.stream()
+                .map(t -> t.getQualifiedName().toString())
+                .collect(Collectors.joining(","));
+        return CREATE_TABLES_DDL.computeIfAbsent(key, k -> tables.stream()
+                .map(t -> {
+                    CreateTableElementListStep steps = dslContext.createTableIfNotExists(t)
+                            .columns(t.fields())
+                            .constraints(t.getKeys().stream().map(Key::constraint).toList());
+                    UniqueKey<?> pk = t.getPrimaryKey();
+                    return nonNull(pk) ? steps.primaryKey(pk.getFields()) : steps;
+                })
+                .map(dslContext::renderInlined)
+                .toList());
+    }
+
+    /**
+     * Check in the H2 {@code INFORMATION_SCHEMA} if all the tables exist in the current schema, with exactly the
+     * columns of their jOOQ table. The names are compared case-insensitively.
+     */
+    boolean tablesMatchSchema(DSLContext dslContext) {
+        Map<String, Set<String>> existing = new HashMap<>();
+        dslContext.resultQuery("SELECT TABLE_NAME, COLUMN_NAME FROM INFORMATION_SCHEMA.COLUMNS "
+                        + "WHERE TABLE_SCHEMA = CURRENT_SCHEMA")
+                .fetch()
+                .forEach(r -> existing.computeIfAbsent(r.get(0, String.class).toUpperCase(), k -> new HashSet<>())
+                        .add(r.get(1, String.class).toUpperCase()));
+        return tables.stream().allMatch(t -> {
+            Set<String> expected = Arrays.stream(t.fields())
+                    .map(f -> f.getName().toUpperCase())
+                    .collect(Collectors.toSet());
+            return expected.equals(existing.get(t.getName().toUpperCase()));
+        });
     }
 
     @Override
-    public void beforeEach(ExtensionContext context) {
+    public void afterAll(ExtensionContext context) {
+        final String catalog = getContextCatalog(context);
+        RowDiffRestore rowDiff = getStore(context).remove(P_ROW_DIFF + catalog, RowDiffRestore.class);
+        if (rowDiff != null) {
+            rowDiff.uninstall(wDsl.getDslContext(context));
+        }
+    }
+
+    @Override
+    public void beforeEach(ExtensionContext context) throws SQLException {
         final String catalog = getContextCatalog(context);
         Tracker tracker = getStore(context).get(P_TRACKER + catalog, Tracker.class);
         if (tracker == null) {
             throw new IllegalStateException(getClass().getName() + " must be static and package-protected !");
         }
 
-        if (tracker.skipNext.getAndSet(false)) {
+        boolean skip = tracker.skipNext.getAndSet(false);
+        if (!skip) {
+            WriteTrackingListener writes = wDsl.getWriteTracker(context);
+            boolean reloadEachTest = resetMode == SampleResetMode.DELETE_INSERT
+                    || resetMode == SampleResetMode.TRUNCATE_INSERT;
+            boolean fullReload = tracker.reloadRequired.getAndSet(false) || (reloadEachTest && !writtenTablesOnly);
+            if (fullReload) {
+                reloadSamples(wDsl.getDslContext(context), t -> true);
+                if (resetMode == SampleResetMode.ROW_DIFF) {
+                    getStore(context).get(P_ROW_DIFF + catalog, RowDiffRestore.class).install(wDsl.getDslContext(context));
+                }
+            } else if (resetMode == SampleResetMode.ROW_DIFF) {
+                getStore(context).get(P_ROW_DIFF + catalog, RowDiffRestore.class).restore(wDsl.getDslContext(context));
+            } else if (reloadEachTest && writes.hasWrites()) {
+                reloadSamples(wDsl.getDslContext(context), writtenTablesWithDependents(writes));
+            }
+            writes.clear();
+        }
+
+        if (resetMode == SampleResetMode.ROLLBACK) {
+            checkSameThread(context);
+            Connection connection = wDsl.getDatasourceExtension().getDataSource(context).getConnection();
+            connection.setAutoCommit(false);
+            getStore(context).put(P_CONNECTION + catalog, connection);
+            wDsl.pinConnection(context, connection);
+        }
+    }
+
+    /**
+     * The {@link SampleResetMode#ROLLBACK} mode pins a single connection, the test methods can not run concurrently.
+     */
+    private static void checkSameThread(ExtensionContext context) {
+        boolean parallel = context.getConfigurationParameter(PARALLEL_ENABLED)
+                .map(Boolean::parseBoolean)
+                .orElse(false);
+        if (parallel && context.getExecutionMode() == ExecutionMode.CONCURRENT) {
+            throw new IllegalStateException("The ROLLBACK reset mode can not run test methods concurrently, annotate "
+                    + context.getRequiredTestClass().getName() + " with @Execution(SAME_THREAD) !");
+        }
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) throws SQLException {
+        final String catalog = getContextCatalog(context);
+        Connection connection = getStore(context).remove(P_CONNECTION + catalog, Connection.class);
+        if (connection == null) {
             return;
         }
 
-        DSLContext dslContext = wDsl.getDslContext(context);
+        wDsl.unpinConnection(context);
+        try (connection) {
+            Tracker tracker = getStore(context).get(P_TRACKER + catalog, Tracker.class);
+            if (tracker.skipNext.get()) {
+                // The next test expects the data as left by this one, they will be reloaded after it
+                connection.commit();
+                tracker.reloadRequired.set(true);
+            } else {
+                connection.rollback();
+            }
+        }
+    }
+
+    private void reloadSamples(DSLContext dslContext, Predicate<Table<?>> reloaded) {
+        boolean truncate = resetMode == SampleResetMode.TRUNCATE_INSERT;
+        if (truncate) {
+            truncateTables(dslContext, tables.stream().filter(reloaded).toList());
+        }
         dslContext.transaction(tx -> {
             DSLContext txDsl = DSL.using(tx);
 
-            var it = records.listIterator(records.size());
-            while (it.hasPrevious()) {
-                txDsl.delete(it.previous().getTable()).execute();
+            var it = tables.listIterator(tables.size());
+            while (!truncate && it.hasPrevious()) {
+                Table<?> table = it.previous();
+                if (reloaded.test(table)) {
+                    txDsl.delete(table).execute();
+                }
+            }
+            for (SampleDataset dataset : datasets) {
+                if (reloaded.test(dataset.table())) {
+                    dataset.insert(txDsl);
+                }
             }
-            records.forEach(r -> r.changed(true));
-            txDsl.batchInsert(records).execute();
         });
     }
 
+    /**
+     * H2 refuses to truncate a table referenced by a foreign key. The referential integrity is disabled on the
+     * truncated tables only, the other tables of the database keep being checked.
+     */
+    private static void truncateTables(DSLContext dslContext, List<Table<?>> truncated) {
+        if (truncated.isEmpty()) {
+            return;
+        }
+        List<Query> queries = new ArrayList<>(truncated.size() * 3);
+        truncated.forEach(t -> queries.add(dslContext.query("ALTER TABLE {0} SET REFERENTIAL_INTEGRITY FALSE", t)));
+        truncated.forEach(t -> queries.add(dslContext.truncate(t).restartIdentity()));
+        truncated.forEach(t -> queries.add(dslContext.query("ALTER TABLE {0} SET REFERENTIAL_INTEGRITY TRUE NOCHECK", t)));
+        dslContext.batch(queries).execute();
+    }
+
+    private void insertTable(DSLContext dslContext, Table<?> table) {
+        datasets.stream()
+                .filter(d -> d.table().equals(table))
+                .forEach(d -> d.insert(dslContext));
+    }
+
+    /**
+     * The tables without primary key or with records not kept in memory can not be restored row by row.
+     */
+    private Set<Table<?>> fullReloadTables() {
+        Set<Table<?>> fullReload = new HashSet<>();
+        tables.stream().filter(t -> t.getPrimaryKey() == null).forEach(fullReload::add);
+        datasets.stream().filter(d -> !d.isResident()).map(SampleDataset::table).forEach(fullReload::add);
+        return fullReload;
+    }
+
+    /**
+     * Select the written tables and the tables of the data sets referencing them. The referencing rows must be
+     * removed before the written table can be emptied.
+     */
+    private Predicate<Table<?>> writtenTablesWithDependents(WriteTrackingListener writes) {
+        Set<Table<?>> reloaded = new HashSet<>();
+        tables.stream().filter(writes::isWritten).forEach(reloaded::add);
+
+        boolean added = !reloaded.isEmpty();
+        while (added) {
+            added = false;
+            for (Table<?> table : tables) {
+                if (!reloaded.contains(table) && table.getReferences().stream()
+                        .anyMatch(fk -> reloaded.contains(fk.getKey().getTable()))) {
+                    added = reloaded.add(table);
+                }
+            }
+        }
+        return reloaded::contains;
+    }
+
+    /**
+     * Merge the following data sets of a same table, kept in memory and inserted with the same strategy, to insert
+     * them with a single call of the strategy.
+     */
+    private static List<SampleDataset> coalesce(List<SampleDataset> sorted) {
+        List<SampleDataset> coalesced = new ArrayList<>(sorted.size());
+        for (SampleDataset dataset : sorted) {
+            int last = coalesced.size() - 1;
+            if (last >= 0 && coalesced.get(last).canMerge(dataset)) {
+                coalesced.set(last, coalesced.get(last).merge(dataset));
+            } else {
+                coalesced.add(dataset);
+            }
+        }
+        return List.copyOf(coalesced);
+    }
+
+    /**
+     * Fail on records with the same primary key in the data sets kept in memory, rather than on the insertion.
+     * The keys with a {@code null} part are left to the database, as the unset generated keys.
+     */
+    private static void checkDuplicateKeys(List<SampleDataset> datasets) {
+        Map<Table<?>, Set<List<Object>>> keys = new HashMap<>();
+        for (SampleDataset dataset : datasets) {
+            UniqueKey<?> pk = dataset.table().getPrimaryKey();
+            if (!dataset.isResident() || pk == null) {
+                continue;
+            }
+            Set<List<Object>> tableKeys = keys.computeIfAbsent(dataset.table(), t -> new HashSet<>());
+            for (TableRecord<?> rec : dataset.records()) {
+                List<Object> key = Arrays.asList(pk.getFields().stream().map(rec::get).toArray());
+                if (key.contains(null)) {
+                    // Key left unset, generated by the database
+                    continue;
+                }
+                if (!tableKeys.add(key)) {
+                    throw new IllegalArgumentException("Duplicate primary key " + key
+                            + " in the data sets of table " + dataset.table().getName() + " !");
+                }
+            }
+        }
+    }
+
+    private static <R extends TableRecord<R>> R copyRecord(TableRecord<R> original) {
+        return original.into(original.getTable());
+    }
+
     private ExtensionContext.Store getStore(ExtensionContext context) {
         return context.getStore(ExtensionContext.Namespace.create(getClass().getName(), getContextCatalog(context)));
     }
@@ -172,15 +457,80 @@ public final class WithSampleDataLoaded implements BeforeAllCallback, BeforeEach
 
     public static class SampleLoaderBuilder {
         private final Extension dslExtension;
-        private final List<TableRecord<?>> records = new ArrayList<>();
+        private final List<SampleDataset> datasets = new ArrayList<>();
         private boolean createTables = false;
+        private boolean skipMatchingTables = false;
+        private SampleResetMode resetMode = SampleResetMode.DELETE_INSERT;
+        private boolean writtenTablesOnly = false;
 
         SampleLoaderBuilder(Extension dslExtension) {
             this.dslExtension = dslExtension;
         }
 
+        /**
+         * Add a data set, inserted with a strategy chosen from its number of records.
+         *
+         * @param dataset The records to load
+         * @param <T>     The type of the records
+         * @return the builder instance
+         * @see BulkLoadStrategy#byRowCount()
+         */
         public <T extends TableRecord<T>> SampleLoaderBuilder addDataset(RelationalDataSet<T> dataset) {
-            records.addAll(dataset.records());
+            return addDataset(dataset, BulkLoadStrategy.byRowCount());
+        }
+
+        /**
+         * Add a data set, inserted with the given strategy.
+         *
+         * @param dataset  The records to load
+         * @param strategy The way the records are inserted
+         * @param <T>      The type of the records
+         * @return the builder instance
+         */
+        public <T extends TableRecord<T>> SampleLoaderBuilder addDataset(RelationalDataSet<T> dataset,
+                                                                         BulkLoadStrategy strategy) {
+            datasets.add(SampleDataset.resident(List.copyOf(dataset.records()), Objects.requireNonNull(strategy)));
+            return this;
+        }
+
+        /**
+         * Add a data set streamed on each load and inserted by chunks, the records are never kept in memory.
+         * <p>
+         * Each chunk is inserted with a strategy chosen from its number of records.
+         *
+         * @param dataset The records to load
+         * @param <T>     The type of the records
+         * @return the builder instance
+         */
+        public <T extends TableRecord<T>> SampleLoaderBuilder addDataset(StreamingRelationalDataSet<T> dataset) {
+            return addDataset(dataset, BulkLoadStrategy.byRowCount());
+        }
+
+        /**
+         * Add a data set streamed on each load and inserted by chunks with the given strategy.
+         *
+         * @param dataset  The records to load
+         * @param strategy The way each chunk of records is inserted
+         * @param <T>      The type of the records
+         * @return the builder instance
+         */
+        public <T extends TableRecord<T>> SampleLoaderBuilder addDataset(StreamingRelationalDataSet<T> dataset,
+                                                                         BulkLoadStrategy strategy) {
+            datasets.add(SampleDataset.streamed(dataset, Objects.requireNonNull(strategy)));
+            return this;
+        }
+
+        /**
+         * Add a data set loaded from a SQL script or a CSV file with the native H2 commands, on each load.
+         * <p>
+         * No record is created, which suits the large fixtures. With the {@link SampleResetMode#ROW_DIFF} mode,
+         * the table is fully reloaded as soon as one of its rows changed.
+         *
+         * @param dataset The file to load
+         * @return the builder instance
+         */
+        public SampleLoaderBuilder addDataset(FileDataSet dataset) {
+            datasets.add(SampleDataset.file(Objects.requireNonNull(dataset)));
             return this;
         }
 
@@ -201,13 +551,122 @@ public final class WithSampleDataLoaded implements BeforeAllCallback, BeforeEach
             return this;
         }
 
+        /**
+         * With this option, the tables are created only if the H2 {@code INFORMATION_SCHEMA} does not show all of
+         * them with exactly the columns of their jOOQ table. It saves the DDL execution for the test classes
+         * sharing the same tables.
+         * <p>
+         * Implies {@link #createTablesIfNotExists()}.
+         *
+         * @return the builder instance
+         */
+        public SampleLoaderBuilder skipTableCreationIfSchemaMatches() {
+            this.createTables = true;
+            this.skipMatchingTables = true;
+            return this;
+        }
+
+        /**
+         * Choose how the sample data are restored between tests.
+         * <p>
+         * By default, the tables are emptied and all the records inserted again before each test.
+         *
+         * @param resetMode the reset strategy
+         * @return the builder instance
+         * @see SampleResetMode
+         */
+        public SampleLoaderBuilder setResetMode(SampleResetMode resetMode) {
+            this.resetMode = Objects.requireNonNull(resetMode);
+            return this;
+        }
+
+        /**
+         * With this option, the writes executed through the {@code DSLContext} of {@link WithDslContext} are
+         * detected and only the written tables are reloaded before the next test. The tables of the data sets
+         * referencing a written table are reloaded too. If no write was detected, nothing is reloaded.
+         * <p>
+         * DDL statements and plain SQL statements whose table can not be identified reload all the tables.
+         * The statements executed directly through the {@code DataSource} are not detected.
+         * <p>
+         * By default, all the tables are reloaded before each test.
+         *
+         * @return the builder instance
+         */
+        public SampleLoaderBuilder reloadWrittenTablesOnly() {
+            this.writtenTablesOnly = true;
+            return this;
+        }
+
         public WithSampleDataLoaded build() {
-            return new WithSampleDataLoaded(dslExtension, records, createTables);
+            return new WithSampleDataLoaded(dslExtension, datasets, createTables, skipMatchingTables,
+                    resetMode, writtenTablesOnly);
+        }
+    }
+
+    /**
+     * Records of a data set, either kept in memory, streamed or read from a file on each load.
+     */
+    private record SampleDataset(Table<?> table, List<? extends TableRecord<?>> records,
+                                 StreamingRelationalDataSet<?> stream, FileDataSet file, BulkLoadStrategy strategy) {
+
+        static SampleDataset resident(List<? extends TableRecord<?>> records, BulkLoadStrategy strategy) {
+            Table<?> table = records.isEmpty() ? null : records.get(0).getTable();
+            return new SampleDataset(table, records, null, null, strategy);
+        }
+
+        static SampleDataset streamed(StreamingRelationalDataSet<?> dataset, BulkLoadStrategy strategy) {
+            return new SampleDataset(dataset.table(), List.of(), dataset, null, strategy);
+        }
+
+        static SampleDataset file(FileDataSet dataset) {
+            return new SampleDataset(dataset.table, List.of(), null, dataset, null);
+        }
+
+        boolean isResident() {
+            return stream == null && file == null;
+        }
+
+        boolean canMerge(SampleDataset other) {
+            return isResident() && other.isResident() && table.equals(other.table) && strategy == other.strategy;
+        }
+
+        SampleDataset merge(SampleDataset other) {
+            List<TableRecord<?>> merged = new ArrayList<>(records.size() + other.records.size());
+            merged.addAll(records);
+            merged.addAll(other.records);
+            return new SampleDataset(table, List.copyOf(merged), null, null, strategy);
+        }
+
+        void insert(DSLContext dsl) {
+            if (isResident()) {
+                strategy.insert(dsl, table, records);
+                return;
+            } else if (file != null) {
+                FileDataSetLoader.load(dsl, file);
+                return;
+            }
+
+            int chunkSize = stream.chunkSize();
+            try (Stream<? extends TableRecord<?>> source = stream.records()) {
+                Iterator<? extends TableRecord<?>> it = source.iterator();
+                List<TableRecord<?>> chunk = new ArrayList<>(chunkSize);
+                while (it.hasNext()) {
+                    chunk.add(it.next());
+                    if (chunk.size() == chunkSize) {
+                        strategy.insert(dsl, table, chunk);
+                        chunk = new ArrayList<>(chunkSize);
+                    }
+                }
+                if (!chunk.isEmpty()) {
+                    strategy.insert(dsl, table, chunk);
+                }
+            }
         }
     }
 
     public static class Tracker {
         private final AtomicBoolean skipNext = new AtomicBoolean(false);
+        private final AtomicBoolean reloadRequired = new AtomicBoolean(false);
 
         public void skipNextSampleLoad() {
             skipNext.set(true);
@@ -0,0 +1,45 @@
+package fr.ght1pc9kc.testy.jooq;
+
+import lombok.experimental.UtilityClass;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * JVM-wide pool of the H2 databases used for a catalog by the test classes running concurrently.
+ * <p>
+ * A released database is kept with its schema and data, and leased again to the next test class of the same catalog.
+ * A new database is created only when all the existing ones are in use.
+ */
+@UtilityClass
+class WorkerDatabasePool {
+    private static final Map<String, Queue<String>> FREE_DATABASES = new ConcurrentHashMap<>();
+    private static final Map<String, AtomicInteger> WORKER_COUNTERS = new ConcurrentHashMap<>();
+
+    /**
+     * Lease a database for the catalog, reusing a released one if any.
+     *
+     * @param catalog The catalog name
+     * @return The name of the H2 database, not used by any other running test class
+     */
+    String lease(String catalog) {
+        String database = FREE_DATABASES.computeIfAbsent(catalog, k -> new ConcurrentLinkedQueue<>()).poll();
+        if (database != null) {
+            return database;
+        }
+        return catalog + "_w" + WORKER_COUNTERS.computeIfAbsent(catalog, k -> new AtomicInteger()).getAndIncrement();
+    }
+
+    /**
+     * Give back a database leased for the catalog.
+     *
+     * @param catalog  The catalog name
+     * @param database The database name returned by {@link #lease(String)}
+     */
+    void release(String catalog, String database) {
+        FREE_DATABASES.computeIfAbsent(catalog, k -> new ConcurrentLinkedQueue<>()).offer(database);
+    }
+}
@@ -0,0 +1,92 @@
+package fr.ght1pc9kc.testy.jooq;
+
+import org.jooq.DDLQuery;
+import org.jooq.ExecuteContext;
+import org.jooq.ExecuteListener;
+import org.jooq.Query;
+import org.jooq.Table;
+import org.jooq.impl.QOM;
+
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * {@link ExecuteListener} recording the tables written by the statements executed through a {@code DSLContext}.
+ * <p>
+ * INSERT, UPDATE and DELETE built with jOOQ are recorded with their target table. Plain SQL statements are recorded
+ * from their SQL text. DDL and statements whose target table can not be found mark the whole catalog as written.
+ */
+final class WriteTrackingListener implements ExecuteListener {
+    private static final Pattern READ_STATEMENT = Pattern.compile(
+            "^\\s*(?:SELECT|WITH|VALUES|TABLE|SHOW|EXPLAIN|SET)\\b", Pattern.CASE_INSENSITIVE);
+    private static final Pattern WRITE_STATEMENT = Pattern.compile(
+            "^\\s*(?:INSERT\\s+INTO|UPDATE|DELETE\\s+FROM|DELETE|MERGE\\s+INTO)\\s+([\\w.\"`]+)", Pattern.CASE_INSENSITIVE);
+
+    private final Set<String> writtenTables = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean catalogWritten = new AtomicBoolean(false);
+
+    @Override
+    public void executeStart(ExecuteContext ctx) {
+        Query[] batch = ctx.batchQueries();
+        if (batch.length == 0) {
+            track(ctx.query(), ctx.sql());
+            return;
+        }
+
+        String[] batchSql = ctx.batchSQL();
+        for (int i = 0; i < batch.length; i++) {
+            track(batch[i], (i < batchSql.length) ? batchSql[i] : ctx.sql());
+        }
+    }
+
+    private void track(Query query, String sql) {
+        if (query instanceof QOM.Insert<?> insert) {
+            markWritten(insert.$into().getName());
+        } else if (query instanceof QOM.Update<?> update) {
+            markWritten(update.$table().getName());
+        } else if (query instanceof QOM.Delete<?> delete) {
+            markWritten(delete.$from().getName());
+        } else if (query instanceof DDLQuery) {
+            catalogWritten.set(true);
+        } else if (sql != null && !READ_STATEMENT.matcher(sql).find()) {
+            Matcher matcher = WRITE_STATEMENT.matcher(sql);
+            if (matcher.find()) {
+                String qualifiedName = matcher.group(1);
+                markWritten(qualifiedName.substring(qualifiedName.lastIndexOf('.') + 1).replaceAll("[\"`]", ""));
+            } else {
+                catalogWritten.set(true);
+            }
+        }
+    }
+
+    private void markWritten(String tableName) {
+        writtenTables.add(tableName.toUpperCase(Locale.ROOT));
+    }
+
+    /**
+     * @return {@code true} if at least one write was executed since the last {@link #clear()}
+     */
+    boolean hasWrites() {
+        return catalogWritten.get() || !writtenTables.isEmpty();
+    }
+
+    /**
+     * @param table The table to check
+     * @return {@code true} if the table may have been written since the last {@link #clear()}
+     */
+    boolean isWritten(Table<?> table) {
+        return catalogWritten.get() || writtenTables.contains(table.getName().toUpperCase(Locale.ROOT));
+    }
+
+    /**
+     * Forget all the writes recorded until now.
+     */
+    void clear() {
+        writtenTables.clear();
+        catalogWritten.set(false);
+    }
+}
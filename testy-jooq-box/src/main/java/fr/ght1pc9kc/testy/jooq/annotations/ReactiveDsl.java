@@ -0,0 +1,15 @@
+package fr.ght1pc9kc.testy.jooq.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Inject the R2DBC {@code DSLContext} of {@code WithR2dbcDslContext} instead of the JDBC one of
+ * {@code WithDslContext}.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.PARAMETER})
+public @interface ReactiveDsl {
+}
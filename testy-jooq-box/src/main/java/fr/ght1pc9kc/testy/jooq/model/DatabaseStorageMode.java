@@ -0,0 +1,33 @@
+package fr.ght1pc9kc.testy.jooq.model;
+
+/**
+ * Where H2 stores the data of the database.
+ */
+public enum DatabaseStorageMode {
+
+    /**
+     * Data kept on the Java heap. The database lives until the JVM stops.
+     */
+    MEMORY("mem:"),
+
+    /**
+     * Data kept in direct buffers, out of the Java heap. The database is dropped after all tests.
+     */
+    NIO_MEMORY("nioMemFS:"),
+
+    /**
+     * Data kept LZF compressed in direct buffers, out of the Java heap. The database is dropped after all tests.
+     */
+    NIO_MEMORY_COMPRESSED("nioMemLZF:"),
+
+    /**
+     * Data kept in a MVStore file in a temporary directory. The directory is deleted after all tests.
+     */
+    TEMPORARY_FILE("file:");
+
+    public final String urlPrefix;
+
+    DatabaseStorageMode(String urlPrefix) {
+        this.urlPrefix = urlPrefix;
+    }
+}
@@ -0,0 +1,39 @@
+package fr.ght1pc9kc.testy.jooq.model;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Duration;
+
+/**
+ * A statement executed through the {@code DSLContext} of {@code WithDslContext}, as recorded by {@code QueryStats}.
+ */
+@Builder
+@Value
+public class ExecutedStatement {
+
+    /**
+     * The executed SQL, the statements of a batch are separated by {@code ;}.
+     */
+    public final String sql;
+
+    /**
+     * Number of bind values of the statement.
+     */
+    public final int bindCount;
+
+    /**
+     * Time from the statement preparation to the end of the fetch.
+     */
+    public final Duration executionTime;
+
+    /**
+     * Number of records fetched, {@code 0} for the statements without result.
+     */
+    public final int rowsFetched;
+
+    /**
+     * The first stack frame outside jOOQ and the JDK, {@code null} if not found.
+     */
+    public final StackTraceElement caller;
+}
@@ -0,0 +1,77 @@
+package fr.ght1pc9kc.testy.jooq.model;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+import org.jooq.Table;
+
+import java.util.Objects;
+
+/**
+ * Data set loaded from a classpath file by the native H2 commands, without creating any jOOQ record.
+ * <p>
+ * The file fills a single table. A file name ending with {@code .gz} is read as a GZIP compressed file.
+ */
+@Value
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class FileDataSet {
+
+    /**
+     * Table filled by the file.
+     */
+    public final Table<?> table;
+
+    /**
+     * Path of the file in the classpath.
+     */
+    public final String resource;
+
+    /**
+     * Format of the file.
+     */
+    public final Format format;
+
+    /**
+     * Flag indicating if the file is GZIP compressed.
+     */
+    public final boolean compressed;
+
+    /**
+     * A SQL script, loaded with the H2 {@code RUNSCRIPT} command. The script must only insert rows into the table.
+     *
+     * @param table    The table filled by the script
+     * @param resource The classpath of the script
+     * @return The data set
+     */
+    public static FileDataSet sqlScript(Table<?> table, String resource) {
+        return of(table, resource, Format.SQL_SCRIPT);
+    }
+
+    /**
+     * A CSV file, loaded with the H2 {@code CSVREAD} function. The file starts with a header line and has the
+     * columns of the table, in the order of the jOOQ table fields.
+     *
+     * @param table    The table filled by the file
+     * @param resource The classpath of the file
+     * @return The data set
+     */
+    public static FileDataSet csv(Table<?> table, String resource) {
+        return of(table, resource, Format.CSV);
+    }
+
+    private static FileDataSet of(Table<?> table, String resource, Format format) {
+        Objects.requireNonNull(table, "The table is mandatory !");
+        String path = Objects.requireNonNull(resource, "The resource is mandatory !").replaceFirst("^/", "");
+        if (Thread.currentThread().getContextClassLoader().getResource(path) == null) {
+            throw new IllegalArgumentException("Resource " + resource + " not found in classpath !");
+        }
+        return new FileDataSet(table, path, format, path.endsWith(".gz"));
+    }
+
+    /**
+     * Supported file formats.
+     */
+    public enum Format {
+        SQL_SCRIPT, CSV
+    }
+}
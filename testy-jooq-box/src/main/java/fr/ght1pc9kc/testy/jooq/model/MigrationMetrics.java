@@ -0,0 +1,46 @@
+package fr.ght1pc9kc.testy.jooq.model;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Timings of the schema loading done by {@code WithDatabaseLoaded} for a catalog.
+ */
+@Builder
+@Value
+public class MigrationMetrics {
+
+    /**
+     * Catalog where the migrations was applied.
+     */
+    public final String catalog;
+
+    /**
+     * Fingerprint of the resolved migrations, {@code null} if the migration cache was not enabled.
+     */
+    public final String fingerprint;
+
+    /**
+     * Time spent by Flyway to migrate the catalog from scratch.
+     */
+    public final Duration migrationTime;
+
+    /**
+     * Time spent to restore the catalog from the cached snapshot, {@code null} if the migrations was run.
+     */
+    public final Duration restoreTime;
+
+    /**
+     * Flag indicating if the catalog was restored from a cached snapshot instead of being migrated.
+     */
+    public final boolean restored;
+
+    /**
+     * Snapshot script file restored or written, {@code null} if the persistent migration cache was not enabled or
+     * if the catalog was restored from the JVM snapshot.
+     */
+    public final Path snapshotFile;
+}
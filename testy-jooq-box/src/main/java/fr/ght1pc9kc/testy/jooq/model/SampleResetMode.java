@@ -0,0 +1,41 @@
+package fr.ght1pc9kc.testy.jooq.model;
+
+/**
+ * Strategy used by {@code WithSampleDataLoaded} to restore the sample data between tests.
+ */
+public enum SampleResetMode {
+
+    /**
+     * Delete the content of the tables and insert all the records before each test.
+     */
+    DELETE_INSERT,
+
+    /**
+     * Truncate the tables and insert all the records before each test.
+     * <p>
+     * All the tables are truncated in a single JDBC batch, with their referential integrity disabled during the
+     * truncation, and their identities restarted. The reset time does not depend on the number of rows any more.
+     * The rows of the tables out of the data sets referencing the truncated rows are not checked.
+     */
+    TRUNCATE_INSERT,
+
+    /**
+     * Load the records once, run each test in a transaction and roll it back after the test.
+     * <p>
+     * Only the statements executed through the {@code DSLContext} of {@code WithDslContext} take part in the
+     * transaction.
+     * <p>
+     * The tests share the connection of the transaction, with the JUnit parallel execution the class must be
+     * annotated with {@code @Execution(SAME_THREAD)}, the extension fails otherwise.
+     */
+    ROLLBACK,
+
+    /**
+     * Load the records once and record the rows changed by each test with H2 triggers. Before the next test, only
+     * these rows are deleted or restored from the original records.
+     * <p>
+     * Worth it for large samples where the tests change few rows. The tables without primary key are fully
+     * reloaded as soon as one of their rows changed.
+     */
+    ROW_DIFF
+}
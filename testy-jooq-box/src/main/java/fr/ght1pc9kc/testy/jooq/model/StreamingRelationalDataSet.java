@@ -0,0 +1,65 @@
+package fr.ght1pc9kc.testy.jooq.model;
+
+import org.jooq.Table;
+import org.jooq.TableRecord;
+
+import java.util.function.LongFunction;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * Set of records produced on demand, for the data sets too large to be kept in memory.
+ * <p>
+ * The records are streamed and inserted by chunks each time the data set is loaded, and never kept after the
+ * insertion. Each call to {@link #records()} must produce the same records.
+ *
+ * @param <T> Type of the records.
+ */
+public interface StreamingRelationalDataSet<T extends TableRecord<T>> {
+
+    /**
+     * @return The table of the records.
+     */
+    Table<T> table();
+
+    /**
+     * Produce the records to insert. Called for each load of the data set.
+     *
+     * @return A new stream of the records, closed after the insertion.
+     */
+    Stream<T> records();
+
+    /**
+     * @return The number of records inserted in a single chunk.
+     */
+    default int chunkSize() {
+        return 1_000;
+    }
+
+    /**
+     * Create a data set of {@code count} records produced by a generator from their index.
+     * <p>
+     * To get random but reproducible values, seed the random generator with the index, as
+     * {@code new SplittableRandom(SEED + index)}.
+     *
+     * @param table     The table of the records
+     * @param count     The number of records
+     * @param generator Produce the record from its index, from {@code 0} to {@code count - 1}
+     * @param <T>       Type of the records.
+     * @return The data set
+     */
+    static <T extends TableRecord<T>> StreamingRelationalDataSet<T> generated(
+            Table<T> table, long count, LongFunction<T> generator) {
+        return new StreamingRelationalDataSet<>() {
+            @Override
+            public Table<T> table() {
+                return table;
+            }
+
+            @Override
+            public Stream<T> records() {
+                return LongStream.range(0, count).mapToObj(generator);
+            }
+        };
+    }
+}
@@ -0,0 +1,84 @@
+package fr.ght1pc9kc.testy.jooq.model;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Duration;
+
+/**
+ * Measures of a concurrent run of a test body by {@code ConcurrencyStress}.
+ */
+@Builder
+@Value
+public class StressReport {
+
+    /**
+     * Number of threads running the body at once.
+     */
+    public final int threads;
+
+    /**
+     * Number of executions of the body, failed ones included.
+     */
+    public final int operations;
+
+    /**
+     * Number of executions which threw an exception, lock timeouts and deadlocks included.
+     */
+    public final int failures;
+
+    /**
+     * Number of executions failed on a H2 lock timeout.
+     */
+    public final int lockTimeouts;
+
+    /**
+     * Number of executions failed on a H2 deadlock.
+     */
+    public final int deadlocks;
+
+    /**
+     * First exception thrown by the body, {@code null} if none.
+     */
+    public final Throwable firstError;
+
+    /**
+     * Wall-clock time of the whole run.
+     */
+    public final Duration elapsed;
+
+    /**
+     * Executions per second.
+     */
+    public final double throughput;
+
+    /**
+     * Median latency of an execution.
+     */
+    public final Duration p50;
+
+    /**
+     * 95th percentile of the latency of an execution.
+     */
+    public final Duration p95;
+
+    /**
+     * 99th percentile of the latency of an execution.
+     */
+    public final Duration p99;
+
+    /**
+     * Longest execution.
+     */
+    public final Duration max;
+
+    /**
+     * Number of samples of {@code INFORMATION_SCHEMA.SESSIONS} showing at least one session waiting for a lock.
+     */
+    public final int lockWaitSamples;
+
+    /**
+     * Highest number of sessions waiting for a lock in a sample.
+     */
+    public final int maxBlockedSessions;
+}
@@ -0,0 +1,99 @@
+package fr.ght1pc9kc.testy.jooq;
+
+import fr.ght1pc9kc.testy.core.extensions.ChainedExtension;
+import fr.ght1pc9kc.testy.dsl.public_.tables.records.JediRecord;
+import fr.ght1pc9kc.testy.dsl.public_.tables.records.LightSaberRecord;
+import fr.ght1pc9kc.testy.jooq.samples.JediSampleData;
+import fr.ght1pc9kc.testy.jooq.samples.LightSaberSampleData;
+import org.jooq.DSLContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static fr.ght1pc9kc.testy.dsl.public_.tables.Jedi.JEDI;
+import static fr.ght1pc9kc.testy.dsl.public_.tables.LightSaber.LIGHT_SABER;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BulkLoadStrategyTest {
+
+    private static final WithInMemoryDatasource wDs = WithInMemoryDatasource.builder()
+            .setCatalog("dummy_bulk")
+            .build();
+    private static final WithDslContext wDslContext = WithDslContext.builder()
+            .setDatasourceExtension(wDs).build();
+    private static final WithSampleDataLoaded wSamples = WithSampleDataLoaded.builder(wDslContext)
+            .createTablesIfNotExists()
+            .addDataset(JediSampleData.DATASET, BulkLoadStrategy.csvDirect())
+            .addDataset(LightSaberSampleData.DATASET, BulkLoadStrategy.multiRowInsert(1))
+            .build();
+
+    @RegisterExtension
+    static ChainedExtension ce = ChainedExtension
+            .outer(wDs)
+            .append(wDslContext)
+            .append(wSamples)
+            .register();
+
+    private final List<JediRecord> jedis = IntStream.range(0, 25)
+            .mapToObj(i -> JEDI.newRecord().setFirstName("jedi-" + i).setLastName("last \"" + i + "\", more"))
+            .toList();
+
+    @BeforeEach
+    void setUp(DSLContext dsl) {
+        dsl.deleteFrom(LIGHT_SABER).execute();
+        dsl.deleteFrom(JEDI).execute();
+    }
+
+    @Test
+    void should_load_with_jdbc_batch(DSLContext dsl) {
+        BulkLoadStrategy.jdbcBatch().insert(dsl, JEDI, jedis);
+        assertLoaded(dsl);
+    }
+
+    @Test
+    void should_load_with_multi_row_insert(DSLContext dsl) {
+        BulkLoadStrategy.multiRowInsert(10).insert(dsl, JEDI, jedis);
+        assertLoaded(dsl);
+    }
+
+    @Test
+    void should_load_with_loader(DSLContext dsl) {
+        BulkLoadStrategy.loader(5, 2, 0).insert(dsl, JEDI, jedis);
+        assertLoaded(dsl);
+    }
+
+    @Test
+    void should_load_with_csv_direct(DSLContext dsl) {
+        BulkLoadStrategy.csvDirect().insert(dsl, JEDI, jedis);
+        assertLoaded(dsl);
+    }
+
+    @Test
+    void should_load_by_row_count(DSLContext dsl) {
+        BulkLoadStrategy.byRowCount().insert(dsl, JEDI, jedis);
+        assertLoaded(dsl);
+    }
+
+    private void assertLoaded(DSLContext dsl) {
+        List<JediRecord> actual = dsl.selectFrom(JEDI).orderBy(JEDI.FIRST_NAME).fetch();
+        assertThat(actual).hasSize(jedis.size());
+        assertThat(actual).extracting(JediRecord::getLastName).contains("last \"7\", more");
+        assertThat(actual).extracting(JediRecord::getForceSide).containsOnlyNulls();
+    }
+
+    static class WithSampleDataLoadedStrategyTest {
+        @RegisterExtension
+        static ChainedExtension ce = BulkLoadStrategyTest.ce;
+
+        @Test
+        void should_load_samples_with_chosen_strategies(DSLContext dsl) {
+            assertThat(dsl.selectFrom(JEDI).fetch(JediRecord::getLastName))
+                    .containsExactlyInAnyOrder("Kenobi", "Master", "Dark");
+            assertThat(dsl.selectFrom(LIGHT_SABER).fetch(LightSaberRecord::getColor))
+                    .containsExactlyInAnyOrder("BLUE", "RED");
+        }
+    }
+}
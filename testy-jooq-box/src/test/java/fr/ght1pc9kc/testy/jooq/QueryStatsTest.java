@@ -0,0 +1,85 @@
+package fr.ght1pc9kc.testy.jooq;
+
+import fr.ght1pc9kc.testy.core.extensions.ChainedExtension;
+import fr.ght1pc9kc.testy.jooq.model.ExecutedStatement;
+import fr.ght1pc9kc.testy.jooq.samples.JediSampleData;
+import fr.ght1pc9kc.testy.jooq.samples.LightSaberSampleData;
+import org.jooq.DSLContext;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.time.Duration;
+import java.util.List;
+
+import static fr.ght1pc9kc.testy.dsl.public_.tables.Jedi.JEDI;
+import static fr.ght1pc9kc.testy.dsl.public_.tables.LightSaber.LIGHT_SABER;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class QueryStatsTest {
+
+    private static final WithInMemoryDatasource wDs = WithInMemoryDatasource.builder()
+            .setCatalog("dummy_stats")
+            .build();
+    private static final WithDslContext wDslContext = WithDslContext.builder()
+            .setDatasourceExtension(wDs)
+            .enableQueryStats()
+            .build();
+    private static final WithSampleDataLoaded wSamples = WithSampleDataLoaded.builder(wDslContext)
+            .createTablesIfNotExists()
+            .addDataset(JediSampleData.DATASET)
+            .addDataset(LightSaberSampleData.DATASET)
+            .build();
+
+    @RegisterExtension
+    static ChainedExtension ce = ChainedExtension
+            .outer(wDs)
+            .append(wDslContext)
+            .append(wSamples)
+            .register();
+
+    @Test
+    void should_record_test_statements_only(DSLContext dsl, QueryStats stats) {
+        assertThat(stats.count()).isZero();
+
+        List<String> names = dsl.select(JEDI.FIRST_NAME).from(JEDI).where(JEDI.FORCE_SIDE.eq("LIGHT")).fetch(JEDI.FIRST_NAME);
+
+        assertThat(names).hasSize(2);
+        ExecutedStatement statement = stats.statements().get(0);
+        assertThat(statement.sql).startsWith("select");
+        assertThat(statement.bindCount).isEqualTo(1);
+        assertThat(statement.rowsFetched).isEqualTo(2);
+        assertThat(statement.executionTime).isPositive();
+        assertThat(statement.caller.getMethodName()).isEqualTo("should_record_test_statements_only");
+
+        stats.assertMaxQueries(1);
+        stats.assertNoRepeatedStatement();
+        stats.assertNoneSlowerThan(Duration.ofSeconds(10));
+    }
+
+    @Test
+    void should_report_test_line_through_testy_helpers(DSLContext dsl, QueryStats stats) {
+        BulkLoadStrategy.jdbcBatch().insert(dsl, JEDI, List.of(JEDI.newRecord().setFirstName("Luke")));
+
+        assertThat(stats.statements()).isNotEmpty().allSatisfy(statement -> {
+            assertThat(statement.caller.getClassName()).isEqualTo(QueryStatsTest.class.getName());
+            assertThat(statement.caller.getMethodName()).isEqualTo("should_report_test_line_through_testy_helpers");
+        });
+    }
+
+    @Test
+    void should_detect_n_plus_one(DSLContext dsl, QueryStats stats) {
+        dsl.selectFrom(JEDI).fetch().forEach(jedi ->
+                dsl.selectFrom(LIGHT_SABER).where(LIGHT_SABER.OWNER.eq(jedi.getFirstName())).fetch());
+
+        assertThat(stats.count()).isEqualTo(4);
+        assertThatThrownBy(() -> stats.assertMaxQueries(3))
+                .isInstanceOf(AssertionError.class)
+                .hasMessageContaining("at most 3 queries but 4");
+        assertThatThrownBy(stats::assertNoRepeatedStatement)
+                .isInstanceOf(AssertionError.class)
+                .hasMessageContaining("LIGHT_SABER");
+        assertThatThrownBy(() -> stats.assertNoneSlowerThan(Duration.ZERO))
+                .isInstanceOf(AssertionError.class);
+    }
+}
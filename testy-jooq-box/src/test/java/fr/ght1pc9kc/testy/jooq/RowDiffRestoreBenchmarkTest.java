@@ -0,0 +1,100 @@
+package fr.ght1pc9kc.testy.jooq;
+
+import fr.ght1pc9kc.testy.core.extensions.ChainedExtension;
+import fr.ght1pc9kc.testy.dsl.public_.tables.records.JediRecord;
+import lombok.extern.slf4j.Slf4j;
+import org.jooq.DSLContext;
+import org.jooq.impl.DSL;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static fr.ght1pc9kc.testy.dsl.public_.tables.Jedi.JEDI;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compare the full reload of a sample table with the row level restore, depending on the number of changed rows.
+ * <p>
+ * Run with {@code mvn test -Dtesty.benchmark=true -Dtest=RowDiffRestoreBenchmarkTest}
+ */
+@Slf4j
+@EnabledIfSystemProperty(named = "testy.benchmark", matches = "true")
+class RowDiffRestoreBenchmarkTest {
+    private static final String CATALOG = "dummy_rowdiff_bench";
+    private static final int SAMPLE_SIZE = 10_000;
+    private static final int ITERATIONS = 5;
+    private static final int[] CHANGED_ROWS = {1, 10, 100, 1_000, 5_000};
+
+    private static final WithInMemoryDatasource wDs = WithInMemoryDatasource.builder()
+            .setCatalog(CATALOG)
+            .build();
+    private static final WithDslContext wDslContext = WithDslContext.builder()
+            .setDatasourceExtension(wDs).build();
+
+    @RegisterExtension
+    static ChainedExtension ce = ChainedExtension
+            .outer(wDs)
+            .append(wDslContext)
+            .register();
+
+    @Test
+    void should_compare_full_reload_and_row_diff(DSLContext dsl) {
+        dsl.createTableIfNotExists(JEDI).columns(JEDI.fields()).primaryKey(JEDI.FIRST_NAME).execute();
+        List<JediRecord> records = IntStream.range(0, SAMPLE_SIZE)
+                .mapToObj(i -> JEDI.newRecord().setFirstName("jedi-" + i).setLastName("last-" + i).setForceSide("LIGHT"))
+                .toList();
+        dsl.attach(records);
+        fullReload(dsl, records);
+
+        long[] fullMicros = new long[CHANGED_ROWS.length];
+        for (int c = 0; c < CHANGED_ROWS.length; c++) {
+            long nanos = 0;
+            for (int i = 0; i < ITERATIONS; i++) {
+                changeRows(dsl, CHANGED_ROWS[c]);
+                long start = System.nanoTime();
+                fullReload(dsl, records);
+                nanos += System.nanoTime() - start;
+            }
+            fullMicros[c] = nanos / ITERATIONS / 1_000;
+        }
+
+        RowDiffRestore restore = new RowDiffRestore(List.of(JEDI), records, Set.of(), (d, t) -> fullReload(d, records));
+        restore.install(dsl);
+        try {
+            for (int c = 0; c < CHANGED_ROWS.length; c++) {
+                long nanos = 0;
+                for (int i = 0; i < ITERATIONS; i++) {
+                    changeRows(dsl, CHANGED_ROWS[c]);
+                    long start = System.nanoTime();
+                    restore.restore(dsl);
+                    nanos += System.nanoTime() - start;
+                }
+                log.info("{} changed rows over {}: full reload {} us, row diff {} us",
+                        CHANGED_ROWS[c], SAMPLE_SIZE, fullMicros[c], nanos / ITERATIONS / 1_000);
+            }
+        } finally {
+            restore.uninstall(dsl);
+        }
+
+        assertThat(dsl.fetchCount(JEDI, JEDI.LAST_NAME.like("changed%"))).isZero();
+    }
+
+    private static void changeRows(DSLContext dsl, int count) {
+        dsl.update(JEDI).set(JEDI.LAST_NAME, DSL.concat(DSL.inline("changed-"), JEDI.FIRST_NAME))
+                .where(JEDI.FIRST_NAME.in(IntStream.range(0, count).mapToObj(i -> "jedi-" + i).toList()))
+                .execute();
+    }
+
+    private static void fullReload(DSLContext dsl, List<JediRecord> records) {
+        dsl.transaction(tx -> {
+            DSLContext txDsl = DSL.using(tx);
+            txDsl.deleteFrom(JEDI).execute();
+            records.forEach(r -> r.changed(true));
+            txDsl.batchInsert(records).execute();
+        });
+    }
+}
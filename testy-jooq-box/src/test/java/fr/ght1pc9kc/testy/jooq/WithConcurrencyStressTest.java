@@ -0,0 +1,82 @@
+package fr.ght1pc9kc.testy.jooq;
+
+import fr.ght1pc9kc.testy.core.extensions.ChainedExtension;
+import fr.ght1pc9kc.testy.jooq.model.StressReport;
+import fr.ght1pc9kc.testy.jooq.samples.JediSampleData;
+import org.jooq.DSLContext;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.time.Duration;
+
+import static fr.ght1pc9kc.testy.dsl.public_.tables.Jedi.JEDI;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WithConcurrencyStressTest {
+    private static final WithInMemoryDatasource wDs = WithInMemoryDatasource.builder()
+            .setCatalog("dummy_stress")
+            .setLockTimeout(Duration.ofMillis(50))
+            .setLockMode(3)
+            .build();
+    private static final WithDslContext wDslContext = WithDslContext.builder()
+            .setDatasourceExtension(wDs)
+            .build();
+    private static final WithSampleDataLoaded wSamples = WithSampleDataLoaded.builder(wDslContext)
+            .createTablesIfNotExists()
+            .addDataset(JediSampleData.DATASET)
+            .build();
+    private static final WithConcurrencyStress wStress = WithConcurrencyStress.builder()
+            .setDslContextExtension(wDslContext)
+            .setThreads(4)
+            .setIterations(25)
+            .build();
+
+    @RegisterExtension
+    static ChainedExtension ce = ChainedExtension
+            .outer(wDs)
+            .append(wDslContext)
+            .append(wSamples)
+            .append(wStress)
+            .register();
+
+    @Test
+    void should_measure_concurrent_reads(ConcurrencyStress stress) throws InterruptedException {
+        StressReport report = stress.run((dsl, worker) -> dsl.fetchCount(JEDI));
+
+        assertThat(report.threads).isEqualTo(4);
+        assertThat(report.operations).isEqualTo(100);
+        assertThat(report.failures).isZero();
+        assertThat(report.firstError).isNull();
+        assertThat(report.throughput).isPositive();
+        assertThat(report.p50).isLessThanOrEqualTo(report.p95);
+        assertThat(report.p95).isLessThanOrEqualTo(report.p99);
+        assertThat(report.p99).isLessThanOrEqualTo(report.max);
+    }
+
+    @Test
+    void should_count_errors(ConcurrencyStress stress) throws InterruptedException {
+        StressReport report = stress.run((dsl, worker) -> {
+            throw new AssertionError("Worker " + worker);
+        });
+
+        assertThat(report.operations).isEqualTo(100);
+        assertThat(report.failures).isEqualTo(100);
+        assertThat(report.firstError).isInstanceOf(AssertionError.class);
+    }
+
+    @Test
+    void should_count_lock_timeouts(ConcurrencyStress stress, DSLContext dsl) throws InterruptedException {
+        StressReport report = dsl.transactionResult(tx -> {
+            // The row stays locked by this transaction during the whole run
+            tx.dsl().update(JEDI).set(JEDI.LAST_NAME, "Locked").where(JEDI.FIRST_NAME.eq("Yoda")).execute();
+            return stress.run((d, worker) -> d.update(JEDI).set(JEDI.LAST_NAME, "Worker " + worker)
+                    .where(JEDI.FIRST_NAME.eq("Yoda")).execute());
+        });
+
+        assertThat(report.failures).isEqualTo(100);
+        assertThat(report.lockTimeouts).isEqualTo(100);
+        assertThat(report.deadlocks).isZero();
+        assertThat(report.lockWaitSamples).isPositive();
+        assertThat(report.maxBlockedSessions).isBetween(1, 4);
+    }
+}
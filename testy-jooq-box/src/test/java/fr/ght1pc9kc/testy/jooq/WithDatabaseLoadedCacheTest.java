@@ -0,0 +1,61 @@
+package fr.ght1pc9kc.testy.jooq;
+
+import fr.ght1pc9kc.testy.core.extensions.ChainedExtension;
+import fr.ght1pc9kc.testy.jooq.model.MigrationMetrics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WithDatabaseLoadedCacheTest {
+    private static final WithInMemoryDatasource wDs = WithInMemoryDatasource.builder()
+            .setCatalog("dummy_cached").build();
+
+    private static final WithDatabaseLoaded wDbMigrated = WithDatabaseLoaded.builder()
+            .setMigrationsLocation("db/migration/dummy_legacy")
+            .setDatasourceExtension(wDs)
+            .enableMigrationCache()
+            .build();
+
+    private static final WithDatabaseLoaded wDbRestored = WithDatabaseLoaded.builder()
+            .setMigrationsLocation("db/migration/dummy_legacy")
+            .setDatasourceExtension(wDs)
+            .enableMigrationCache()
+            .build();
+
+    @RegisterExtension
+    static ChainedExtension chain = ChainedExtension
+            .outer(wDs)
+            .append(wDbMigrated)
+            .append(wDbRestored)
+            .register();
+
+    @Test
+    void should_restore_catalog_from_snapshot(DataSource ds, MigrationMetrics metrics) throws SQLException {
+        assertThat(metrics.restored).isTrue();
+        assertThat(metrics.fingerprint).isNotBlank();
+        assertThat(metrics.migrationTime).isNotNull();
+        assertThat(metrics.restoreTime).isNotNull();
+
+        List<String> actuals = new ArrayList<>();
+        try (Connection conn = ds.getConnection();
+             Statement stmt = conn.createStatement()) {
+            ResultSet rs = stmt.executeQuery("SELECT * FROM GUNGAN");
+
+            while (rs.next()) {
+                actuals.add(rs.getString(1) + " " + rs.getString(2));
+            }
+            rs.close();
+        }
+
+        assertThat(actuals).containsExactly("Jar Jar Binks");
+    }
+}
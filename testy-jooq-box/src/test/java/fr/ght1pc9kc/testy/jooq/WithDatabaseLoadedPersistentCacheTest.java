@@ -0,0 +1,58 @@
+package fr.ght1pc9kc.testy.jooq;
+
+import fr.ght1pc9kc.testy.core.extensions.ChainedExtension;
+import fr.ght1pc9kc.testy.jooq.model.MigrationMetrics;
+import org.jooq.DSLContext;
+import org.jooq.SQLDialect;
+import org.jooq.impl.DSL;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import javax.sql.DataSource;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WithDatabaseLoadedPersistentCacheTest {
+    private static final Path SNAPSHOTS = Path.of("target", "testy-migration-snapshots-test");
+
+    private static final WithInMemoryDatasource wDs = WithInMemoryDatasource.builder()
+            .setCatalog("dummy_persisted").build();
+
+    private static final WithDatabaseLoaded wDbMigrated = WithDatabaseLoaded.builder()
+            .setMigrationsLocation("db/migration/dummy_legacy")
+            .setDatasourceExtension(wDs)
+            .enablePersistentMigrationCache(SNAPSHOTS)
+            .build();
+
+    private static final WithDatabaseLoaded wDbRestored = WithDatabaseLoaded.builder()
+            .setMigrationsLocation("db/migration/dummy_legacy")
+            .setDatasourceExtension(wDs)
+            .enablePersistentMigrationCache(SNAPSHOTS)
+            .build();
+
+    @RegisterExtension
+    static ChainedExtension chain = ChainedExtension
+            .outer(wDs)
+            .append(wDbMigrated)
+            .append((BeforeAllCallback) context -> WithDatabaseLoaded.clearMigrationSnapshots())
+            .append(wDbRestored)
+            .register();
+
+    @Test
+    void should_restore_catalog_from_snapshot_file(DataSource ds, MigrationMetrics metrics) {
+        assertThat(metrics.restored).isTrue();
+        assertThat(metrics.snapshotFile)
+                .isRegularFile()
+                .hasParent(SNAPSHOTS);
+        assertThat(metrics.snapshotFile.getFileName().toString()).isEqualTo("dummy_persisted-" + metrics.fingerprint + ".sql");
+        assertThat(metrics.migrationTime).isNotNull();
+        assertThat(metrics.restoreTime).isNotNull();
+
+        DSLContext dsl = DSL.using(ds, SQLDialect.H2);
+        assertThat(dsl.fetch("SELECT * FROM GUNGAN").map(r -> r.get(0) + " " + r.get(1)))
+                .containsExactly("Jar Jar Binks");
+        assertThat(dsl.fetchCount(DSL.table(DSL.name("flyway_schema_history")))).isPositive();
+    }
+}
@@ -0,0 +1,70 @@
+package fr.ght1pc9kc.testy.jooq;
+
+import fr.ght1pc9kc.testy.core.extensions.ChainedExtension;
+import fr.ght1pc9kc.testy.jooq.samples.FlywayVersionDataSet;
+import org.jooq.DSLContext;
+import org.jooq.SQLDialect;
+import org.jooq.impl.DSL;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A marker column, out of the content hash, is lost if the history table is rewritten.
+ */
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class WithFlywaySchemaHistoryKeepTest {
+
+    private static final WithInMemoryDatasource wDataSource = WithInMemoryDatasource.builder()
+            .setCatalog("test_db_keep")
+            .build();
+    private static final WithFlywaySchemaHistory wFlywayHistory = WithFlywaySchemaHistory.builder(wDataSource)
+            .addVersions(FlywayVersionDataSet.VERSION_1, FlywayVersionDataSet.VERSION_2, FlywayVersionDataSet.VERSION_3)
+            .build();
+
+    @RegisterExtension
+    static final ChainedExtension chain = ChainedExtension.outer(wDataSource)
+            .append(wFlywayHistory)
+            .register();
+
+    @Test
+    @Order(1)
+    void should_mark_history(DataSource ds) {
+        DSLContext dsl = DSL.using(ds, SQLDialect.H2);
+        dsl.execute("ALTER TABLE {0} ADD COLUMN {1} VARCHAR(10)",
+                DSL.name(WithFlywaySchemaHistory.DEFAULT_TABLE_NAME), DSL.name("marker"));
+        dsl.execute("UPDATE {0} SET {1} = 'kept'",
+                DSL.name(WithFlywaySchemaHistory.DEFAULT_TABLE_NAME), DSL.name("marker"));
+
+        assertMarked(ds);
+    }
+
+    @Test
+    @Order(2)
+    void should_keep_unchanged_history(DataSource ds) {
+        assertMarked(ds);
+    }
+
+    @Nested
+    class NestedClass {
+        @Test
+        void should_keep_unchanged_history_for_next_class(DataSource ds) {
+            assertMarked(ds);
+        }
+    }
+
+    private static void assertMarked(DataSource ds) {
+        DSLContext dsl = DSL.using(ds, SQLDialect.H2);
+        assertThat(dsl.fetch("SELECT {0} FROM {1}", DSL.name("marker"),
+                DSL.name(WithFlywaySchemaHistory.DEFAULT_TABLE_NAME))
+                .getValues(0, String.class))
+                .containsExactly("kept", "kept", "kept");
+    }
+}
@@ -0,0 +1,67 @@
+package fr.ght1pc9kc.testy.jooq;
+
+import fr.ght1pc9kc.testy.core.extensions.ChainedExtension;
+import fr.ght1pc9kc.testy.jooq.samples.FlywayVersionDataSet;
+import org.jooq.DSLContext;
+import org.jooq.SQLDialect;
+import org.jooq.impl.DSL;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class WithFlywaySchemaHistoryResetTest {
+
+    private static final WithInMemoryDatasource wDataSource = WithInMemoryDatasource.builder()
+            .setCatalog("test_db_reset")
+            .build();
+    private static final WithFlywaySchemaHistory wFlywayHistory = WithFlywaySchemaHistory.builder(wDataSource)
+            .addVersions(FlywayVersionDataSet.VERSION_1, FlywayVersionDataSet.VERSION_2, FlywayVersionDataSet.VERSION_3)
+            .build();
+
+    @RegisterExtension
+    static final ChainedExtension chain = ChainedExtension.outer(wDataSource)
+            .append(wFlywayHistory)
+            .register();
+
+    @Test
+    @Order(1)
+    void should_alter_history(DataSource ds) {
+        DSLContext dsl = DSL.using(ds, SQLDialect.H2);
+        dsl.execute("UPDATE {0} SET {1} = 'altered'",
+                DSL.name(WithFlywaySchemaHistory.DEFAULT_TABLE_NAME), DSL.name("description"));
+        dsl.execute("DELETE FROM {0} WHERE {1} = 1",
+                DSL.name(WithFlywaySchemaHistory.DEFAULT_TABLE_NAME), DSL.name("installed_rank"));
+
+        assertThat(dsl.fetchCount(DSL.table(DSL.name(WithFlywaySchemaHistory.DEFAULT_TABLE_NAME)))).isEqualTo(2);
+    }
+
+    @Test
+    @Order(2)
+    void should_restore_altered_history(DataSource ds) {
+        DSLContext dsl = DSL.using(ds, SQLDialect.H2);
+        assertThat(dsl.fetch("SELECT {0} FROM {1} ORDER BY {2}", DSL.name("version"),
+                DSL.name(WithFlywaySchemaHistory.DEFAULT_TABLE_NAME), DSL.name("installed_rank"))
+                .getValues(0, String.class))
+                .containsExactly(FlywayVersionDataSet.VERSION_1.version,
+                        FlywayVersionDataSet.VERSION_2.version,
+                        FlywayVersionDataSet.VERSION_3.version);
+        assertThat(dsl.fetchCount(DSL.table(DSL.name(WithFlywaySchemaHistory.DEFAULT_TABLE_NAME)),
+                DSL.field(DSL.name("description")).eq("altered"))).isZero();
+
+        dsl.dropTable(DSL.name(WithFlywaySchemaHistory.DEFAULT_TABLE_NAME)).execute();
+    }
+
+    @Test
+    @Order(3)
+    void should_recreate_dropped_history(DataSource ds) {
+        DSLContext dsl = DSL.using(ds, SQLDialect.H2);
+        assertThat(dsl.fetchCount(DSL.table(DSL.name(WithFlywaySchemaHistory.DEFAULT_TABLE_NAME)))).isEqualTo(3);
+    }
+}
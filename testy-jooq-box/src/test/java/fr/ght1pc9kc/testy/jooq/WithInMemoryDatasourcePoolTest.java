@@ -0,0 +1,61 @@
+package fr.ght1pc9kc.testy.jooq;
+
+import fr.ght1pc9kc.testy.jooq.annotations.DbCatalogName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WithInMemoryDatasourcePoolTest {
+
+    @RegisterExtension
+    static WithInMemoryDatasource wDs = WithInMemoryDatasource.builder()
+            .setCatalog("dummy_pooled")
+            .usePool(2)
+            .build();
+
+    @Test
+    void should_inject_pooled_datasource(DataSource tested, PooledDataSource pool, @DbCatalogName String catalog) {
+        assertThat(tested).isSameAs(pool);
+        assertThat(pool.getMaxConnections()).isEqualTo(2);
+
+        long borrowed = pool.getBorrowCount();
+        WithInMemoryDatasourceTest.test_database_aware(tested, catalog);
+        WithInMemoryDatasourceTest.test_database_aware(tested, catalog);
+
+        assertThat(pool.getBorrowCount()).isEqualTo(borrowed + 2);
+        assertThat(pool.getActiveConnections()).isZero();
+    }
+
+    @Test
+    void should_reuse_physical_connection(DataSource tested) throws SQLException {
+        try (Connection conn = tested.getConnection(); Statement st = conn.createStatement()) {
+            st.execute("SET @testy_pool = 42");
+        }
+        try (Connection conn = tested.getConnection(); Statement st = conn.createStatement()) {
+            var rs = st.executeQuery("SELECT @testy_pool");
+            assertThat(rs.next()).isTrue();
+            assertThat(rs.getInt(1)).isEqualTo(42);
+        }
+    }
+
+    @Test
+    void should_rollback_returned_connection(DataSource tested) throws SQLException {
+        try (Connection conn = tested.getConnection(); Statement st = conn.createStatement()) {
+            st.execute("CREATE TABLE IF NOT EXISTS POOL_CHECK (ID INT)");
+            conn.setAutoCommit(false);
+            st.executeUpdate("INSERT INTO POOL_CHECK VALUES (1)");
+        }
+        try (Connection conn = tested.getConnection(); Statement st = conn.createStatement()) {
+            assertThat(conn.getAutoCommit()).isTrue();
+            var rs = st.executeQuery("SELECT COUNT(*) FROM POOL_CHECK");
+            assertThat(rs.next()).isTrue();
+            assertThat(rs.getInt(1)).isZero();
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package fr.ght1pc9kc.testy.jooq;
+
+import fr.ght1pc9kc.testy.core.extensions.ChainedExtension;
+import fr.ght1pc9kc.testy.dsl.public_.tables.records.JediRecord;
+import fr.ght1pc9kc.testy.jooq.annotations.DbCatalogName;
+import fr.ght1pc9kc.testy.jooq.model.DatabaseStorageMode;
+import fr.ght1pc9kc.testy.jooq.samples.JediSampleData;
+import org.h2.store.fs.FileUtils;
+import org.jooq.DSLContext;
+import org.jooq.impl.DSL;
+import org.junit.jupiter.api.ClassOrderer;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestClassOrder;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+
+import static fr.ght1pc9kc.testy.dsl.public_.tables.Jedi.JEDI;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@TestClassOrder(ClassOrderer.OrderAnnotation.class)
+class WithInMemoryDatasourceStorageTest {
+    private static final String MEMORY_URL = "jdbc:h2:mem:dummy_memory";
+
+    @Nested
+    @Order(1)
+    class MemoryStorage {
+        private static final WithInMemoryDatasource wDs = WithInMemoryDatasource.builder()
+                .setCatalog("dummy_memory")
+                .build();
+
+        @RegisterExtension
+        static ChainedExtension ce = ChainedExtension
+                .outer(wDs)
+                .register();
+
+        @Test
+        void should_store_database_in_memory(DataSource tested) throws SQLException {
+            try (Connection conn = tested.getConnection()) {
+                assertThat(conn.getMetaData().getURL()).startsWith(MEMORY_URL);
+                conn.createStatement().execute("CREATE TABLE MARKER (ID INT)");
+            }
+        }
+    }
+
+    @Nested
+    @Order(2)
+    class MemoryStorageDropped {
+        @Test
+        void should_drop_memory_database_after_class() throws SQLException {
+            try (Connection conn = DriverManager.getConnection(MEMORY_URL)) {
+                assertThat(DSL.using(conn).fetchCount(DSL.table("INFORMATION_SCHEMA.SCHEMATA"),
+                        DSL.field("SCHEMA_NAME").eq("dummy_memory"))).isZero();
+            }
+        }
+    }
+
+    @Nested
+    class OffHeapStorage {
+        private static final WithInMemoryDatasource wDs = WithInMemoryDatasource.builder()
+                .setCatalog("dummy_offheap")
+                .setStorageMode(DatabaseStorageMode.NIO_MEMORY_COMPRESSED)
+                .setCacheSize(2048)
+                .build();
+        private static final WithDslContext wDslContext = WithDslContext.builder()
+                .setDatasourceExtension(wDs).build();
+        private static final WithSampleDataLoaded wSamples = WithSampleDataLoaded.builder(wDslContext)
+                .createTablesIfNotExists()
+                .addDataset(JediSampleData.DATASET)
+                .build();
+
+        @RegisterExtension
+        static ChainedExtension ce = ChainedExtension
+                .outer(wDs)
+                .append(wDslContext)
+                .append(wSamples)
+                .register();
+
+        @Test
+        void should_store_database_off_heap(DataSource tested, @DbCatalogName String catalog, DSLContext dsl) {
+            WithInMemoryDatasourceTest.test_database_aware(tested, catalog);
+            assertThat(FileUtils.exists("nioMemLZF:dummy_offheap.mv.db")).isTrue();
+            assertThat(dsl.fetchValue("SELECT SETTING_VALUE FROM INFORMATION_SCHEMA.SETTINGS WHERE SETTING_NAME = 'CACHE_SIZE'"))
+                    .isEqualTo("2048");
+            assertThat(dsl.selectFrom(JEDI).fetch(JediRecord::getLastName))
+                    .containsExactly("Kenobi", "Master", "Dark");
+        }
+    }
+
+    @Nested
+    class TemporaryFileStorage {
+        private static final WithInMemoryDatasource wDs = WithInMemoryDatasource.builder()
+                .setCatalog("dummy_tmpfile")
+                .setStorageMode(DatabaseStorageMode.TEMPORARY_FILE)
+                .usePool(2)
+                .build();
+
+        @RegisterExtension
+        static ChainedExtension ce = ChainedExtension
+                .outer(wDs)
+                .register();
+
+        @Test
+        void should_store_database_in_temporary_file(DataSource tested, @DbCatalogName String catalog) throws Exception {
+            WithInMemoryDatasourceTest.test_database_aware(tested, catalog);
+            try (var conn = tested.getConnection()) {
+                String url = conn.getMetaData().getURL();
+                assertThat(url).contains("testy-h2-").endsWith("dummy_tmpfile");
+            }
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package fr.ght1pc9kc.testy.jooq;
+
+import fr.ght1pc9kc.testy.core.extensions.ChainedExtension;
+import org.h2.tools.Server;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import javax.inject.Named;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class WithInMemoryDatasourceTcpServerTest {
+    private static final String FIRST_CATALOG = "dummy_tcp_first";
+    private static final String SECOND_CATALOG = "dummy_tcp_second";
+
+    private static final WithInMemoryDatasource wFirstDatasource = WithInMemoryDatasource.builder()
+            .setCatalog(FIRST_CATALOG)
+            .wrapTcpServer(true)
+            .setTcpServerPort(0)
+            .build();
+    private static final WithInMemoryDatasource wSecondDatasource = WithInMemoryDatasource.builder()
+            .setCatalog(SECOND_CATALOG)
+            .wrapTcpServer(true)
+            .setTcpServerPort(0)
+            .build();
+
+    @RegisterExtension
+    static ChainedExtension chain = ChainedExtension
+            .outer(wFirstDatasource)
+            .append(wSecondDatasource)
+            .register();
+
+    @Test
+    void should_share_tcp_server(@Named(FIRST_CATALOG) Server first, @Named(SECOND_CATALOG) Server second,
+                                 @Named(SECOND_CATALOG) DataSource ds) throws SQLException {
+        assertThat(first).isSameAs(second);
+        assertThat(first.getPort()).isPositive();
+        assertThat(first.isRunning(false)).isTrue();
+
+        try (Connection local = ds.getConnection();
+             Connection conn = DriverManager.getConnection(
+                "jdbc:h2:tcp://localhost:" + first.getPort() + "/mem:" + SECOND_CATALOG, "", "")) {
+            assertThat(conn.getCatalog()).isEqualTo(local.getCatalog());
+        }
+    }
+
+    @Test
+    void should_keep_server_until_closed() throws SQLException {
+        SharedTcpServer shared = new SharedTcpServer();
+        Server server = shared.acquire(SharedTcpServer.FREE_PORT);
+        try {
+            assertThat(shared.acquire(SharedTcpServer.FREE_PORT)).isSameAs(server);
+            assertThat(shared.acquire(server.getPort())).isSameAs(server);
+            assertThatThrownBy(() -> shared.acquire(server.getPort() == 1 ? 2 : 1))
+                    .isInstanceOf(IllegalStateException.class);
+            assertThat(server.isRunning(false)).isTrue();
+        } finally {
+            shared.close();
+        }
+        assertThat(server.isRunning(false)).isFalse();
+    }
+}
@@ -0,0 +1,66 @@
+package fr.ght1pc9kc.testy.jooq;
+
+import fr.ght1pc9kc.testy.core.extensions.ChainedExtension;
+import fr.ght1pc9kc.testy.dsl.public_.tables.records.JediRecord;
+import fr.ght1pc9kc.testy.jooq.annotations.DbCatalogName;
+import fr.ght1pc9kc.testy.jooq.model.DatabaseStorageMode;
+import fr.ght1pc9kc.testy.jooq.samples.JediSampleData;
+import org.jooq.DSLContext;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import static fr.ght1pc9kc.testy.dsl.public_.tables.Jedi.JEDI;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class WithInMemoryDatasourceWorkerTest {
+
+    private static final WithInMemoryDatasource wDs = WithInMemoryDatasource.builder()
+            .setCatalog("dummy_worker")
+            .leaseDatabasePerWorker()
+            .build();
+    private static final WithDslContext wDslContext = WithDslContext.builder()
+            .setDatasourceExtension(wDs).build();
+    private static final WithSampleDataLoaded wSamples = WithSampleDataLoaded.builder(wDslContext)
+            .createTablesIfNotExists()
+            .addDataset(JediSampleData.DATASET)
+            .build();
+
+    @RegisterExtension
+    static ChainedExtension ce = ChainedExtension
+            .outer(wDs)
+            .append(wDslContext)
+            .append(wSamples)
+            .register();
+
+    @Test
+    void should_use_leased_database(DataSource tested, @DbCatalogName String catalog) throws SQLException {
+        assertThat(catalog).isEqualTo("dummy_worker");
+        try (Connection conn = tested.getConnection()) {
+            assertThat(conn.getCatalog()).startsWith("dummy_worker_w");
+            assertThat(conn.getSchema()).isEqualTo("dummy_worker");
+        }
+    }
+
+    @Test
+    void should_load_samples_in_leased_database(DSLContext dsl) {
+        assertThat(dsl.selectFrom(JEDI).fetch(JediRecord::getLastName))
+                .containsExactly("Kenobi", "Master", "Dark");
+    }
+
+    @Test
+    void should_reject_lease_with_dropped_storage() {
+        WithInMemoryDatasource.WithInMemoryDatasourceBuilder builder = WithInMemoryDatasource.builder()
+                .setCatalog("dummy_worker")
+                .setStorageMode(DatabaseStorageMode.NIO_MEMORY)
+                .leaseDatabasePerWorker();
+
+        assertThatThrownBy(builder::build)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("MEMORY");
+    }
+}
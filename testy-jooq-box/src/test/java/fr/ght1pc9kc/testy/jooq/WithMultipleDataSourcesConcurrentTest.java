@@ -0,0 +1,71 @@
+package fr.ght1pc9kc.testy.jooq;
+
+import fr.ght1pc9kc.testy.core.extensions.ChainedExtension;
+import fr.ght1pc9kc.testy.jooq.annotations.DbCatalogName;
+import org.jooq.DSLContext;
+import org.jooq.Record;
+import org.jooq.Result;
+import org.jooq.SQLDialect;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import javax.inject.Named;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WithMultipleDataSourcesConcurrentTest {
+    private static final String NORA_CATALOG = "dummy_nora";
+    private static final String LEGACY_CATALOG = "dummy_legacy";
+    private static final String SQL_SELECT_ALL_GUNGANS = "SELECT FIRST_NAME, LAST_NAME FROM GUNGAN";
+    private static final String SQL_SELECT_ALL_MASTERS = "SELECT FIRST_NAME, LAST_NAME FROM MASTER";
+
+    private final static WithInMemoryDatasource wLegacyDatasource = WithInMemoryDatasource.builder()
+            .setCatalog(LEGACY_CATALOG)
+            .setReferentialIntegrity(false)
+            .build();
+    private final static WithDatabaseLoaded wLegacyDatabase = WithDatabaseLoaded.builder()
+            .setDatasourceExtension(wLegacyDatasource)
+            .build();
+    private final static WithDslContext wLegacyContext = WithDslContext.builder()
+            .setDatasourceExtension(wLegacyDatasource)
+            .setDialect(SQLDialect.H2)
+            .build();
+
+    private final static WithInMemoryDatasource wNoraDatasource = WithInMemoryDatasource.builder()
+            .setCatalog(NORA_CATALOG)
+            .build();
+    private final static WithDatabaseLoaded wNoraDatabase = WithDatabaseLoaded.builder()
+            .setDatasourceExtension(wNoraDatasource)
+            .build();
+    private final static WithDslContext wNoraContext = WithDslContext.builder()
+            .setDatasourceExtension(wNoraDatasource)
+            .setDialect(SQLDialect.H2)
+            .build();
+
+    @RegisterExtension
+    @SuppressWarnings("unused")
+    static ChainedExtension dbExtension = ChainedExtension
+            .outer(ChainedExtension.concurrent(
+                    ChainedExtension.outer(wLegacyDatasource).append(wLegacyDatabase).register(),
+                    ChainedExtension.outer(wNoraDatasource).append(wNoraDatabase).register()))
+            .append(wLegacyContext)
+            .append(wNoraContext)
+            .register();
+
+    @Test
+    void shouldSetBothContexts(@Named(LEGACY_CATALOG) DSLContext legacyContext,
+                               @Named(LEGACY_CATALOG) @DbCatalogName String legacyCatalog,
+                               @Named(NORA_CATALOG) DSLContext noraContext,
+                               @Named(NORA_CATALOG) @DbCatalogName String noraCatalog) {
+
+        assertThat(legacyCatalog).isEqualTo(LEGACY_CATALOG);
+        final Result<Record> actualLegacyResult = legacyContext.fetch(SQL_SELECT_ALL_GUNGANS);
+        assertThat(actualLegacyResult).hasSize(1);
+        assertThat(actualLegacyResult.get(0).intoList()).containsExactly("Jar Jar", "Binks");
+
+        assertThat(noraCatalog).isEqualTo(NORA_CATALOG);
+        final Result<Record> actualNoraResult = noraContext.fetch(SQL_SELECT_ALL_MASTERS);
+        assertThat(actualNoraResult).hasSize(1);
+        assertThat(actualNoraResult.get(0).intoList()).containsExactly("Obiwan", "Kenobi");
+    }
+}
@@ -0,0 +1,46 @@
+package fr.ght1pc9kc.testy.jooq;
+
+import fr.ght1pc9kc.testy.core.extensions.ChainedExtension;
+import fr.ght1pc9kc.testy.dsl.public_.tables.records.JediRecord;
+import fr.ght1pc9kc.testy.jooq.annotations.ReactiveDsl;
+import fr.ght1pc9kc.testy.jooq.samples.JediSampleData;
+import io.r2dbc.spi.Closeable;
+import io.r2dbc.spi.ConnectionFactory;
+import org.jooq.DSLContext;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import reactor.core.publisher.Flux;
+
+import static fr.ght1pc9kc.testy.dsl.public_.tables.Jedi.JEDI;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WithR2dbcDslContextLoadedTest {
+    private static final WithInMemoryDatasource wDs = WithInMemoryDatasource.builder()
+            .setCatalog("dummy_r2dbc")
+            .build();
+    private static final WithDslContext wDslContext = WithDslContext.builder()
+            .setDatasourceExtension(wDs).build();
+    private static final WithSampleDataLoaded wSamples = WithSampleDataLoaded.builder(wDslContext)
+            .createTablesIfNotExists()
+            .addDataset(JediSampleData.DATASET)
+            .build();
+    private static final WithR2dbcDslContext tested = WithR2dbcDslContext.builder()
+            .setDatasourceExtension(wDs)
+            .usePool(2)
+            .build();
+
+    @RegisterExtension
+    static ChainedExtension ce = ChainedExtension
+            .outer(wDs)
+            .append(wDslContext)
+            .append(wSamples)
+            .append(tested)
+            .register();
+
+    @Test
+    void should_read_samples_through_r2dbc(@ReactiveDsl DSLContext dsl, ConnectionFactory connectionFactory) {
+        assertThat(connectionFactory).isInstanceOf(Closeable.class);
+        assertThat(Flux.from(dsl.selectFrom(JEDI)).map(JediRecord::getLastName).collectList().block())
+                .containsExactlyInAnyOrder("Kenobi", "Master", "Dark");
+    }
+}
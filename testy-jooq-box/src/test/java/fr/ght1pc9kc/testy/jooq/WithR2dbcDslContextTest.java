@@ -0,0 +1,50 @@
+package fr.ght1pc9kc.testy.jooq;
+
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import io.r2dbc.spi.Option;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class WithR2dbcDslContextTest {
+
+    @Test
+    void should_build_connection_options() {
+        ConnectionFactoryOptions options = WithR2dbcDslContext.connectionOptions("dummy_r2dbc_w0", "dummy_r2dbc", 0);
+
+        assertThat(options.getValue(ConnectionFactoryOptions.DRIVER)).isEqualTo("h2");
+        assertThat(options.getValue(ConnectionFactoryOptions.PROTOCOL)).isEqualTo("mem");
+        assertThat(options.getValue(ConnectionFactoryOptions.DATABASE)).isEqualTo("dummy_r2dbc_w0");
+        assertThat(options.getValue(Option.valueOf("options")).toString())
+                .contains("DB_CLOSE_DELAY=-1")
+                .endsWith("SCHEMA=dummy_r2dbc");
+    }
+
+    @Test
+    void should_build_pooled_connection_options() {
+        ConnectionFactoryOptions options = WithR2dbcDslContext.connectionOptions("dummy_r2dbc", "dummy_r2dbc", 4);
+
+        assertThat(options.getValue(ConnectionFactoryOptions.DRIVER)).isEqualTo("pool");
+        assertThat(options.getValue(ConnectionFactoryOptions.PROTOCOL)).isEqualTo("h2:mem");
+        assertThat(options.getValue(Option.valueOf("maxSize"))).isEqualTo(4);
+    }
+
+    @Test
+    void should_fail_without_r2dbc_driver() {
+        ConnectionFactoryOptions options = ConnectionFactoryOptions.builder()
+                .from(WithR2dbcDslContext.connectionOptions("dummy_r2dbc", "dummy_r2dbc", 0))
+                .option(ConnectionFactoryOptions.DRIVER, "unknown")
+                .build();
+
+        assertThatThrownBy(() -> WithR2dbcDslContext.createConnectionFactory(options))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("r2dbc-h2");
+    }
+
+    @Test
+    void should_reject_invalid_pool_size() {
+        assertThatThrownBy(() -> WithR2dbcDslContext.builder().usePool(0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,73 @@
+package fr.ght1pc9kc.testy.jooq;
+
+import fr.ght1pc9kc.testy.core.extensions.ChainedExtension;
+import fr.ght1pc9kc.testy.dsl.public_.tables.records.JediRecord;
+import fr.ght1pc9kc.testy.jooq.model.RelationalDataSet;
+import fr.ght1pc9kc.testy.jooq.samples.JediSampleData;
+import fr.ght1pc9kc.testy.jooq.samples.LightSaberSampleData;
+import org.jooq.DSLContext;
+import org.jooq.Table;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static fr.ght1pc9kc.testy.dsl.public_.tables.Jedi.JEDI;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class WithSampleDataLoadedCoalescingTest {
+    private static final List<Table<?>> INSERTED_TABLES = new ArrayList<>();
+    private static final BulkLoadStrategy RECORDING = (dsl, table, records) -> {
+        INSERTED_TABLES.add(table);
+        BulkLoadStrategy.byRowCount().insert(dsl, table, records);
+    };
+
+    private static final RelationalDataSet<JediRecord> LUKE = () -> List.of(JEDI.newRecord()
+            .setFirstName("Luke")
+            .setLastName("Skywalker")
+            .setForceSide("LIGHT"));
+
+    private static final WithInMemoryDatasource wDs = WithInMemoryDatasource.builder()
+            .setCatalog("dummy_coalescing")
+            .build();
+    private static final WithDslContext wDslContext = WithDslContext.builder()
+            .setDatasourceExtension(wDs).build();
+    private static final WithSampleDataLoaded tested = WithSampleDataLoaded.builder(wDslContext)
+            .createTablesIfNotExists()
+            .addDataset(JediSampleData.DATASET, RECORDING)
+            .addDataset(LightSaberSampleData.DATASET, RECORDING)
+            .addDataset(LUKE, RECORDING)
+            .build();
+
+    @RegisterExtension
+    static ChainedExtension ce = ChainedExtension
+            .outer(wDs)
+            .append(wDslContext)
+            .append(tested)
+            .register();
+
+    @Test
+    void should_insert_each_table_once(DSLContext dsl) {
+        assertThat(INSERTED_TABLES).isNotEmpty();
+        assertThat(INSERTED_TABLES.stream().distinct().count()).isEqualTo(INSERTED_TABLES.size());
+        assertThat(dsl.selectFrom(JEDI).fetch(JediRecord::getFirstName))
+                .containsExactlyInAnyOrder("Obiwan", "Yoda", "Vader", "Luke");
+    }
+
+    @Test
+    void should_reject_duplicate_primary_keys() {
+        RelationalDataSet<JediRecord> otherYoda = () -> List.of(JEDI.newRecord()
+                .setFirstName("Yoda")
+                .setLastName("Grand Master")
+                .setForceSide("LIGHT"));
+        WithSampleDataLoaded.SampleLoaderBuilder builder = WithSampleDataLoaded.builder(wDslContext)
+                .addDataset(JediSampleData.DATASET)
+                .addDataset(otherYoda);
+
+        assertThatThrownBy(builder::build)
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Yoda");
+    }
+}
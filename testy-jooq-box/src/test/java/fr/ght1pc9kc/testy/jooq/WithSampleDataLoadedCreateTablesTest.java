@@ -0,0 +1,61 @@
+package fr.ght1pc9kc.testy.jooq;
+
+import fr.ght1pc9kc.testy.core.extensions.ChainedExtension;
+import fr.ght1pc9kc.testy.dsl.public_.tables.records.JediRecord;
+import fr.ght1pc9kc.testy.jooq.samples.JediSampleData;
+import fr.ght1pc9kc.testy.jooq.samples.LightSaberSampleData;
+import org.jooq.DSLContext;
+import org.jooq.impl.SQLDataType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import static fr.ght1pc9kc.testy.dsl.public_.tables.Jedi.JEDI;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WithSampleDataLoadedCreateTablesTest {
+
+    private static final WithInMemoryDatasource wDs = WithInMemoryDatasource.builder()
+            .setCatalog("dummy_ddl")
+            .build();
+    private static final WithDslContext wDslContext = WithDslContext.builder()
+            .setDatasourceExtension(wDs).build();
+    private static final WithSampleDataLoaded tested = WithSampleDataLoaded.builder(wDslContext)
+            .skipTableCreationIfSchemaMatches()
+            .addDataset(JediSampleData.DATASET)
+            .addDataset(LightSaberSampleData.DATASET)
+            .build();
+
+    @RegisterExtension
+    static ChainedExtension ce = ChainedExtension
+            .outer(wDs)
+            .append(wDslContext)
+            .append(tested)
+            .register();
+
+    @Test
+    void should_create_tables_and_load_samples(DSLContext dsl) {
+        assertThat(dsl.selectFrom(JEDI).fetch(JediRecord::getFirstName))
+                .containsExactlyInAnyOrder("Obiwan", "Yoda", "Vader");
+    }
+
+    @Test
+    void should_cache_generated_ddl(DSLContext dsl) {
+        assertThat(tested.createTablesDdl(dsl))
+                .hasSize(2)
+                .allSatisfy(ddl -> assertThat(ddl).startsWith("create table if not exists"))
+                .isSameAs(tested.createTablesDdl(dsl));
+    }
+
+    @Test
+    void should_compare_tables_with_information_schema(DSLContext dsl) {
+        assertThat(tested.tablesMatchSchema(dsl)).isTrue();
+
+        dsl.alterTable(JEDI).addColumn("EXTRA", SQLDataType.INTEGER).execute();
+        try {
+            assertThat(tested.tablesMatchSchema(dsl)).isFalse();
+        } finally {
+            dsl.alterTable(JEDI).dropColumn("EXTRA").execute();
+        }
+        assertThat(tested.tablesMatchSchema(dsl)).isTrue();
+    }
+}
@@ -0,0 +1,106 @@
+package fr.ght1pc9kc.testy.jooq;
+
+import fr.ght1pc9kc.testy.core.extensions.ChainedExtension;
+import fr.ght1pc9kc.testy.dsl.public_.tables.records.JediRecord;
+import fr.ght1pc9kc.testy.dsl.public_.tables.records.LightSaberRecord;
+import fr.ght1pc9kc.testy.jooq.model.FileDataSet;
+import org.jooq.DSLContext;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import static fr.ght1pc9kc.testy.dsl.public_.tables.Jedi.JEDI;
+import static fr.ght1pc9kc.testy.dsl.public_.tables.LightSaber.LIGHT_SABER;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class WithSampleDataLoadedFileTest {
+
+    @Test
+    void should_detect_compressed_files() {
+        assertThat(FileDataSet.sqlScript(JEDI, "/samples/jedi.sql").compressed).isFalse();
+        assertThat(FileDataSet.csv(LIGHT_SABER, "samples/light_saber.csv.gz").compressed).isTrue();
+        assertThatThrownBy(() -> FileDataSet.csv(LIGHT_SABER, "samples/unknown.csv"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Nested
+    @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+    class PlainScriptCompressedCsv {
+        private static final WithInMemoryDatasource wDs = WithInMemoryDatasource.builder()
+                .setCatalog("dummy_file")
+                .build();
+        private static final WithDslContext wDslContext = WithDslContext.builder()
+                .setDatasourceExtension(wDs).build();
+        private static final WithSampleDataLoaded tested = WithSampleDataLoaded.builder(wDslContext)
+                .createTablesIfNotExists()
+                .addDataset(FileDataSet.sqlScript(JEDI, "samples/jedi.sql"))
+                .addDataset(FileDataSet.csv(LIGHT_SABER, "samples/light_saber.csv.gz"))
+                .build();
+
+        @RegisterExtension
+        static ChainedExtension ce = ChainedExtension
+                .outer(wDs)
+                .append(wDslContext)
+                .append(tested)
+                .register();
+
+        @Test
+        @Order(1)
+        void should_load_files(DSLContext dsl, WithSampleDataLoaded.Tracker tracker) {
+            assertThat(dsl.selectFrom(JEDI).fetch(JediRecord::getFirstName))
+                    .containsExactlyInAnyOrder("Obiwan", "Yoda", "Vader");
+            assertThat(dsl.selectFrom(LIGHT_SABER).fetch(LightSaberRecord::getColor))
+                    .containsExactlyInAnyOrder("BLUE", "RED");
+
+            dsl.deleteFrom(LIGHT_SABER).execute();
+            tracker.skipNextSampleLoad();
+        }
+
+        @Test
+        @Order(2)
+        void should_skip_reload_with_tracker(DSLContext dsl) {
+            assertThat(dsl.fetchCount(LIGHT_SABER)).isZero();
+            dsl.deleteFrom(JEDI).execute();
+        }
+
+        @Test
+        @Order(3)
+        void should_reload_files(DSLContext dsl) {
+            assertThat(dsl.fetchCount(JEDI)).isEqualTo(3);
+            assertThat(dsl.fetchCount(LIGHT_SABER)).isEqualTo(2);
+        }
+    }
+
+    @Nested
+    class CompressedScriptPlainCsv {
+        private static final WithInMemoryDatasource wDs = WithInMemoryDatasource.builder()
+                .setCatalog("dummy_file_gz")
+                .build();
+        private static final WithDslContext wDslContext = WithDslContext.builder()
+                .setDatasourceExtension(wDs).build();
+        private static final WithSampleDataLoaded tested = WithSampleDataLoaded.builder(wDslContext)
+                .createTablesIfNotExists()
+                .addDataset(FileDataSet.sqlScript(JEDI, "samples/jedi.sql.gz"))
+                .addDataset(FileDataSet.csv(LIGHT_SABER, "samples/light_saber.csv"))
+                .build();
+
+        @RegisterExtension
+        static ChainedExtension ce = ChainedExtension
+                .outer(wDs)
+                .append(wDslContext)
+                .append(tested)
+                .register();
+
+        @Test
+        void should_load_files(DSLContext dsl) {
+            assertThat(dsl.selectFrom(JEDI).fetch(JediRecord::getLastName))
+                    .containsExactlyInAnyOrder("Kenobi", "Master", "Dark");
+            assertThat(dsl.selectFrom(LIGHT_SABER).fetch(LightSaberRecord::getOwner))
+                    .containsExactlyInAnyOrder("Obiwan", "Vader");
+        }
+    }
+}
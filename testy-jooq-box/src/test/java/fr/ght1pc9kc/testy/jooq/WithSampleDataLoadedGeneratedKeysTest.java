@@ -0,0 +1,36 @@
+package fr.ght1pc9kc.testy.jooq;
+
+import fr.ght1pc9kc.testy.core.extensions.ChainedExtension;
+import fr.ght1pc9kc.testy.jooq.samples.DroidSampleData;
+import org.jooq.DSLContext;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import static fr.ght1pc9kc.testy.jooq.samples.DroidSampleData.DROID;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WithSampleDataLoadedGeneratedKeysTest {
+    private static final WithInMemoryDatasource wDs = WithInMemoryDatasource.builder()
+            .setCatalog("dummy_generated_keys")
+            .build();
+    private static final WithDslContext wDslContext = WithDslContext.builder()
+            .setDatasourceExtension(wDs).build();
+    private static final WithSampleDataLoaded tested = WithSampleDataLoaded.builder(wDslContext)
+            .createTablesIfNotExists()
+            .addDataset(DroidSampleData.DATASET)
+            .build();
+
+    @RegisterExtension
+    static ChainedExtension ce = ChainedExtension
+            .outer(wDs)
+            .append(wDslContext)
+            .append(tested)
+            .register();
+
+    @Test
+    void should_load_records_with_unset_generated_keys(DSLContext dsl) {
+        assertThat(dsl.selectFrom(DROID).orderBy(DROID.ID).fetch(DROID.NAME))
+                .containsExactly("R2-D2", "C-3PO");
+        assertThat(dsl.fetchCount(dsl.selectDistinct(DROID.ID).from(DROID))).isEqualTo(2);
+    }
+}
@@ -0,0 +1,111 @@
+package fr.ght1pc9kc.testy.jooq;
+
+import fr.ght1pc9kc.testy.core.extensions.ChainedExtension;
+import fr.ght1pc9kc.testy.dsl.public_.tables.records.JediRecord;
+import fr.ght1pc9kc.testy.jooq.model.SampleResetMode;
+import fr.ght1pc9kc.testy.jooq.samples.JediSampleData;
+import fr.ght1pc9kc.testy.jooq.samples.LightSaberSampleData;
+import org.jooq.DSLContext;
+import org.jooq.impl.DSL;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import static fr.ght1pc9kc.testy.dsl.public_.tables.Jedi.JEDI;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class WithSampleDataLoadedRollbackTest {
+
+    private static final WithInMemoryDatasource wDs = WithInMemoryDatasource.builder()
+            .setCatalog("dummy_rollback")
+            .build();
+    private static final WithDslContext wDslContext = WithDslContext.builder()
+            .setDatasourceExtension(wDs).build();
+    private static final WithSampleDataLoaded tested = WithSampleDataLoaded.builder(wDslContext)
+            .createTablesIfNotExists()
+            .addDataset(JediSampleData.DATASET)
+            .addDataset(LightSaberSampleData.DATASET)
+            .setResetMode(SampleResetMode.ROLLBACK)
+            .build();
+
+    @RegisterExtension
+    static ChainedExtension ce = ChainedExtension
+            .outer(wDs)
+            .append(wDslContext)
+            .append(tested)
+            .register();
+
+    @Test
+    @Order(1)
+    void should_update_in_transaction(DSLContext dsl) {
+        dsl.transaction(tx -> DSL.using(tx).update(JEDI).set(JEDI.LAST_NAME, "Kenoby")
+                .where(JEDI.FIRST_NAME.eq(JediSampleData.OBIWAN.getFirstName())).execute());
+        dsl.deleteFrom(JEDI).where(JEDI.FIRST_NAME.eq(JediSampleData.YODA.getFirstName())).execute();
+
+        assertThat(dsl.selectFrom(JEDI).fetch(JediRecord::getLastName))
+                .containsExactly("Kenoby", "Dark");
+    }
+
+    @Test
+    @Order(2)
+    void should_rollback_previous_test(DSLContext dsl, WithSampleDataLoaded.Tracker tracker) {
+        assertThat(dsl.selectFrom(JEDI).fetch(JediRecord::getLastName))
+                .containsExactly("Kenobi", "Master", "Dark");
+
+        dsl.update(JEDI).set(JEDI.LAST_NAME, "Skywalker")
+                .where(JEDI.FIRST_NAME.eq(JediSampleData.VADER.getFirstName())).execute();
+        tracker.skipNextSampleLoad();
+    }
+
+    @Test
+    @Order(3)
+    void should_keep_data_when_skipped(DSLContext dsl) {
+        assertThat(dsl.selectFrom(JEDI).fetch(JediRecord::getLastName))
+                .containsExactly("Kenobi", "Master", "Skywalker");
+    }
+
+    @Test
+    @Order(4)
+    void should_reload_after_skipped_test(DSLContext dsl) {
+        assertThat(dsl.selectFrom(JEDI).fetch(JediRecord::getLastName))
+                .containsExactly("Kenobi", "Master", "Dark");
+    }
+
+    @Test
+    @Order(5)
+    void should_keep_previous_writes_when_transaction_fails(DSLContext dsl) {
+        dsl.deleteFrom(JEDI).where(JEDI.FIRST_NAME.eq(JediSampleData.YODA.getFirstName())).execute();
+
+        assertThatThrownBy(() -> dsl.transaction(tx -> {
+            DSL.using(tx).update(JEDI).set(JEDI.LAST_NAME, "Kenoby")
+                    .where(JEDI.FIRST_NAME.eq(JediSampleData.OBIWAN.getFirstName())).execute();
+            throw new IllegalStateException("Failing transaction");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(dsl.selectFrom(JEDI).fetch(JediRecord::getLastName))
+                .containsExactly("Kenobi", "Dark");
+    }
+
+    @Test
+    @Order(6)
+    void should_keep_previous_writes_when_nested_transaction_fails(DSLContext dsl) {
+        dsl.deleteFrom(JEDI).where(JEDI.FIRST_NAME.eq(JediSampleData.YODA.getFirstName())).execute();
+
+        dsl.transaction(tx -> {
+            DSL.using(tx).update(JEDI).set(JEDI.LAST_NAME, "Skywalker")
+                    .where(JEDI.FIRST_NAME.eq(JediSampleData.VADER.getFirstName())).execute();
+            assertThatThrownBy(() -> DSL.using(tx).transaction(nested -> {
+                DSL.using(nested).update(JEDI).set(JEDI.LAST_NAME, "Kenoby")
+                        .where(JEDI.FIRST_NAME.eq(JediSampleData.OBIWAN.getFirstName())).execute();
+                throw new IllegalStateException("Failing nested transaction");
+            })).isInstanceOf(IllegalStateException.class);
+        });
+
+        assertThat(dsl.selectFrom(JEDI).fetch(JediRecord::getLastName))
+                .containsExactly("Kenobi", "Skywalker");
+    }
+}
@@ -0,0 +1,57 @@
+package fr.ght1pc9kc.testy.jooq;
+
+import fr.ght1pc9kc.testy.core.extensions.ChainedExtension;
+import fr.ght1pc9kc.testy.jooq.model.SampleResetMode;
+import fr.ght1pc9kc.testy.jooq.samples.JediSampleData;
+import org.jooq.DSLContext;
+import org.junit.jupiter.api.ClassOrderer;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestClassOrder;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import static fr.ght1pc9kc.testy.dsl.public_.tables.Jedi.JEDI;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@TestClassOrder(ClassOrderer.OrderAnnotation.class)
+class WithSampleDataLoadedRowDiffCleanupTest {
+
+    @Nested
+    @Order(1)
+    class RowDiffClass {
+        private static final WithInMemoryDatasource wDs = WithInMemoryDatasource.builder()
+                .setCatalog("dummy_rowdiff_cleanup")
+                .build();
+        private static final WithDslContext wDslContext = WithDslContext.builder()
+                .setDatasourceExtension(wDs).build();
+        private static final WithSampleDataLoaded tested = WithSampleDataLoaded.builder(wDslContext)
+                .createTablesIfNotExists()
+                .addDataset(JediSampleData.DATASET)
+                .setResetMode(SampleResetMode.ROW_DIFF)
+                .build();
+
+        @RegisterExtension
+        static ChainedExtension ce = ChainedExtension
+                .outer(wDs)
+                .append(wDslContext)
+                .append(tested)
+                .register();
+
+        @Test
+        void should_record_changes(DSLContext dsl) {
+            dsl.deleteFrom(JEDI).where(JEDI.FIRST_NAME.eq(JediSampleData.YODA.getFirstName())).execute();
+
+            assertThat(RowChangeTrigger.recordedTables()).isPositive();
+        }
+    }
+
+    @Nested
+    @Order(2)
+    class AfterRowDiffClass {
+        @Test
+        void should_forget_changes_after_class() {
+            assertThat(RowChangeTrigger.recordedTables()).isZero();
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package fr.ght1pc9kc.testy.jooq;
+
+import fr.ght1pc9kc.testy.core.extensions.ChainedExtension;
+import fr.ght1pc9kc.testy.dsl.public_.tables.records.JediRecord;
+import fr.ght1pc9kc.testy.dsl.public_.tables.records.LightSaberRecord;
+import fr.ght1pc9kc.testy.jooq.model.SampleResetMode;
+import fr.ght1pc9kc.testy.jooq.samples.DroidSampleData;
+import fr.ght1pc9kc.testy.jooq.samples.JediSampleData;
+import fr.ght1pc9kc.testy.jooq.samples.LightSaberSampleData;
+import org.jooq.DSLContext;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static fr.ght1pc9kc.testy.dsl.public_.tables.Jedi.JEDI;
+import static fr.ght1pc9kc.testy.dsl.public_.tables.LightSaber.LIGHT_SABER;
+import static fr.ght1pc9kc.testy.jooq.samples.DroidSampleData.DROID;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class WithSampleDataLoadedRowDiffTest {
+
+    private static final WithInMemoryDatasource wDs = WithInMemoryDatasource.builder()
+            .setCatalog("dummy_rowdiff")
+            .build();
+    private static final WithDslContext wDslContext = WithDslContext.builder()
+            .setDatasourceExtension(wDs).build();
+    private static final WithSampleDataLoaded tested = WithSampleDataLoaded.builder(wDslContext)
+            .createTablesIfNotExists()
+            .addDataset(JediSampleData.DATASET)
+            .addDataset(LightSaberSampleData.DATASET)
+            .addDataset(DroidSampleData.DATASET)
+            .setResetMode(SampleResetMode.ROW_DIFF)
+            .build();
+
+    @RegisterExtension
+    static ChainedExtension ce = ChainedExtension
+            .outer(wDs)
+            .append(wDslContext)
+            .append(tested)
+            .register();
+
+    @Test
+    @Order(1)
+    void should_change_rows(DSLContext dsl) {
+        dsl.update(JEDI).set(JEDI.LAST_NAME, "Kenoby")
+                .where(JEDI.FIRST_NAME.eq(JediSampleData.OBIWAN.getFirstName())).execute();
+        dsl.deleteFrom(JEDI).where(JEDI.FIRST_NAME.eq(JediSampleData.YODA.getFirstName())).execute();
+        dsl.insertInto(JEDI).set(JEDI.FIRST_NAME, "Luke").set(JEDI.LAST_NAME, "Skywalker").execute();
+
+        assertThat(dsl.selectFrom(JEDI).fetch(JediRecord::getLastName))
+                .containsExactlyInAnyOrder("Kenoby", "Dark", "Skywalker");
+    }
+
+    @Test
+    @Order(2)
+    void should_restore_changed_rows(DSLContext dsl) {
+        assertThat(dsl.selectFrom(JEDI).fetch(JediRecord::getLastName))
+                .containsExactlyInAnyOrder("Kenobi", "Master", "Dark");
+    }
+
+    @Test
+    @Order(3)
+    void should_change_rows_through_datasource(DataSource ds) throws SQLException {
+        try (Connection conn = ds.getConnection(); Statement st = conn.createStatement()) {
+            st.executeUpdate("UPDATE LIGHT_SABER SET COLOR = 'GREEN' WHERE OWNER = 'Obiwan'");
+            st.executeUpdate("UPDATE JEDI SET FORCE_SIDE = 'LIGHT' WHERE FIRST_NAME = 'Vader'");
+        }
+    }
+
+    @Test
+    @Order(4)
+    void should_restore_rows_changed_through_datasource(DSLContext dsl) {
+        assertThat(dsl.selectFrom(LIGHT_SABER).fetch(LightSaberRecord::getColor))
+                .containsExactlyInAnyOrder("BLUE", "RED");
+        assertThat(dsl.select(JEDI.FORCE_SIDE).from(JEDI)
+                .where(JEDI.FIRST_NAME.eq(JediSampleData.VADER.getFirstName()))
+                .fetchOne(JEDI.FORCE_SIDE))
+                .isEqualTo("OBSCUR");
+    }
+
+    @Test
+    @Order(5)
+    void should_change_rows_with_generated_keys(DSLContext dsl) {
+        dsl.deleteFrom(DROID).where(DROID.NAME.eq("R2-D2")).execute();
+        dsl.insertInto(DROID).set(DROID.NAME, "BB-8").execute();
+
+        assertThat(dsl.selectFrom(DROID).fetch(DROID.NAME)).containsExactlyInAnyOrder("C-3PO", "BB-8");
+    }
+
+    @Test
+    @Order(6)
+    void should_restore_rows_with_generated_keys(DSLContext dsl) {
+        assertThat(dsl.selectFrom(DROID).fetch(DROID.NAME)).containsExactlyInAnyOrder("R2-D2", "C-3PO");
+    }
+}
@@ -0,0 +1,79 @@
+package fr.ght1pc9kc.testy.jooq;
+
+import fr.ght1pc9kc.testy.core.extensions.ChainedExtension;
+import fr.ght1pc9kc.testy.dsl.public_.tables.records.JediRecord;
+import fr.ght1pc9kc.testy.jooq.model.SampleResetMode;
+import fr.ght1pc9kc.testy.jooq.model.StreamingRelationalDataSet;
+import org.jooq.DSLContext;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static fr.ght1pc9kc.testy.dsl.public_.tables.Jedi.JEDI;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class WithSampleDataLoadedStreamingTest {
+    private static final int COUNT = 2_500;
+    private static final AtomicInteger STREAM_CALLS = new AtomicInteger();
+
+    private static final StreamingRelationalDataSet<JediRecord> GENERATED = StreamingRelationalDataSet.generated(
+            JEDI, COUNT, i -> {
+                if (i == 0) {
+                    STREAM_CALLS.incrementAndGet();
+                }
+                SplittableRandom random = new SplittableRandom(42 + i);
+                return JEDI.newRecord()
+                        .setFirstName("jedi-" + i)
+                        .setLastName("last-" + random.nextInt(1_000))
+                        .setForceSide(random.nextBoolean() ? "LIGHT" : "OBSCUR");
+            });
+
+    private static final WithInMemoryDatasource wDs = WithInMemoryDatasource.builder()
+            .setCatalog("dummy_streaming")
+            .build();
+    private static final WithDslContext wDslContext = WithDslContext.builder()
+            .setDatasourceExtension(wDs).build();
+    private static final WithSampleDataLoaded tested = WithSampleDataLoaded.builder(wDslContext)
+            .createTablesIfNotExists()
+            .addDataset(GENERATED)
+            .setResetMode(SampleResetMode.ROW_DIFF)
+            .build();
+
+    @RegisterExtension
+    static ChainedExtension ce = ChainedExtension
+            .outer(wDs)
+            .append(wDslContext)
+            .append(tested)
+            .register();
+
+    @Test
+    @Order(1)
+    void should_load_generated_records(DSLContext dsl) {
+        assertThat(dsl.fetchCount(JEDI)).isEqualTo(COUNT);
+        assertThat(STREAM_CALLS.get()).isEqualTo(1);
+
+        dsl.deleteFrom(JEDI).where(JEDI.FIRST_NAME.like("jedi-1%")).execute();
+    }
+
+    @Test
+    @Order(2)
+    void should_stream_again_to_restore_changed_table(DSLContext dsl) {
+        assertThat(dsl.fetchCount(JEDI)).isEqualTo(COUNT);
+        assertThat(STREAM_CALLS.get()).isEqualTo(2);
+        assertThat(dsl.fetchValue(JEDI.LAST_NAME, JEDI.FIRST_NAME.eq("jedi-7")))
+                .isEqualTo("last-" + new SplittableRandom(42 + 7).nextInt(1_000));
+    }
+
+    @Test
+    @Order(3)
+    void should_not_stream_unchanged_table(DSLContext dsl) {
+        assertThat(dsl.fetchCount(JEDI)).isEqualTo(COUNT);
+        assertThat(STREAM_CALLS.get()).isEqualTo(2);
+    }
+}
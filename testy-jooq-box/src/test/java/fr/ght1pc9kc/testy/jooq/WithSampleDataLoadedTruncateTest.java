@@ -0,0 +1,88 @@
+package fr.ght1pc9kc.testy.jooq;
+
+import fr.ght1pc9kc.testy.core.extensions.ChainedExtension;
+import fr.ght1pc9kc.testy.dsl.public_.Keys;
+import fr.ght1pc9kc.testy.dsl.public_.tables.records.JediRecord;
+import fr.ght1pc9kc.testy.dsl.public_.tables.records.LightSaberRecord;
+import fr.ght1pc9kc.testy.jooq.model.SampleResetMode;
+import fr.ght1pc9kc.testy.jooq.samples.JediSampleData;
+import fr.ght1pc9kc.testy.jooq.samples.LightSaberSampleData;
+import org.jooq.DSLContext;
+import org.jooq.exception.DataAccessException;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.util.List;
+
+import static fr.ght1pc9kc.testy.dsl.public_.tables.Jedi.JEDI;
+import static fr.ght1pc9kc.testy.dsl.public_.tables.LightSaber.LIGHT_SABER;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class WithSampleDataLoadedTruncateTest {
+
+    private static final WithInMemoryDatasource wDs = WithInMemoryDatasource.builder()
+            .setCatalog("dummy_truncate")
+            .build();
+    private static final WithDslContext wDslContext = WithDslContext.builder()
+            .setDatasourceExtension(wDs).build();
+    private static final WithSampleDataLoaded tested = WithSampleDataLoaded.builder(wDslContext)
+            .createTablesIfNotExists()
+            .addDataset(LightSaberSampleData.DATASET)   // declared before the referenced table
+            .addDataset(JediSampleData.DATASET)
+            .setResetMode(SampleResetMode.TRUNCATE_INSERT)
+            .build();
+
+    @RegisterExtension
+    static ChainedExtension ce = ChainedExtension
+            .outer(wDs)
+            .append(wDslContext)
+            .append((BeforeAllCallback) context -> {
+                DSLContext dsl = wDslContext.getDslContext(context);
+                dsl.createTable(JEDI).columns(JEDI.fields()).primaryKey(JEDI.FIRST_NAME).execute();
+                dsl.createTable(LIGHT_SABER).columns(LIGHT_SABER.fields())
+                        .constraint(Keys.FK_LIGHT_SABER_OWNER.constraint())
+                        .execute();
+            })
+            .append(tested)
+            .register();
+
+    @Test
+    void should_sort_tables_by_references() {
+        assertThat(TableDependencies.sortByReferences(List.of(LIGHT_SABER, JEDI))).containsExactly(JEDI, LIGHT_SABER);
+        assertThat(TableDependencies.sortByReferences(List.of(JEDI, LIGHT_SABER))).containsExactly(JEDI, LIGHT_SABER);
+    }
+
+    @Test
+    @Order(1)
+    void should_change_rows(DSLContext dsl) {
+        dsl.deleteFrom(LIGHT_SABER).where(LIGHT_SABER.OWNER.eq("Vader")).execute();
+        dsl.deleteFrom(JEDI).where(JEDI.FIRST_NAME.eq("Vader")).execute();
+        dsl.insertInto(JEDI).set(JEDI.FIRST_NAME, "Luke").set(JEDI.LAST_NAME, "Skywalker").execute();
+
+        assertThat(dsl.selectFrom(JEDI).fetch(JediRecord::getFirstName))
+                .containsExactlyInAnyOrder("Obiwan", "Yoda", "Luke");
+    }
+
+    @Test
+    @Order(2)
+    void should_truncate_and_reload_samples(DSLContext dsl) {
+        assertThat(dsl.selectFrom(JEDI).fetch(JediRecord::getFirstName))
+                .containsExactlyInAnyOrder("Obiwan", "Yoda", "Vader");
+        assertThat(dsl.selectFrom(LIGHT_SABER).fetch(LightSaberRecord::getOwner))
+                .containsExactlyInAnyOrder("Obiwan", "Vader");
+    }
+
+    @Test
+    @Order(3)
+    void should_keep_referential_integrity(DSLContext dsl) {
+        assertThatThrownBy(() -> dsl.insertInto(LIGHT_SABER)
+                .set(LIGHT_SABER.OWNER, "Luke").set(LIGHT_SABER.COLOR, "GREEN").execute())
+                .isInstanceOf(DataAccessException.class);
+    }
+}
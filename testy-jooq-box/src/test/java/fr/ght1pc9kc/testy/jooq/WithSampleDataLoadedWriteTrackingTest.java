@@ -0,0 +1,82 @@
+package fr.ght1pc9kc.testy.jooq;
+
+import fr.ght1pc9kc.testy.core.extensions.ChainedExtension;
+import fr.ght1pc9kc.testy.dsl.public_.tables.records.JediRecord;
+import fr.ght1pc9kc.testy.jooq.samples.JediSampleData;
+import fr.ght1pc9kc.testy.jooq.samples.LightSaberSampleData;
+import org.jooq.DSLContext;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static fr.ght1pc9kc.testy.dsl.public_.tables.Jedi.JEDI;
+import static fr.ght1pc9kc.testy.dsl.public_.tables.LightSaber.LIGHT_SABER;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class WithSampleDataLoadedWriteTrackingTest {
+
+    private static final WithInMemoryDatasource wDs = WithInMemoryDatasource.builder()
+            .setCatalog("dummy_tracked")
+            .build();
+    private static final WithDslContext wDslContext = WithDslContext.builder()
+            .setDatasourceExtension(wDs).build();
+    private static final WithSampleDataLoaded tested = WithSampleDataLoaded.builder(wDslContext)
+            .createTablesIfNotExists()
+            .addDataset(JediSampleData.DATASET)
+            .addDataset(LightSaberSampleData.DATASET)
+            .reloadWrittenTablesOnly()
+            .build();
+
+    @RegisterExtension
+    static ChainedExtension ce = ChainedExtension
+            .outer(wDs)
+            .append(wDslContext)
+            .append(tested)
+            .register();
+
+    @Test
+    @Order(1)
+    void should_update_with_dsl(DSLContext dsl) {
+        dsl.update(JEDI).set(JEDI.LAST_NAME, "Kenoby")
+                .where(JEDI.FIRST_NAME.eq(JediSampleData.OBIWAN.getFirstName())).execute();
+
+        assertThat(dsl.selectFrom(JEDI).fetch(JediRecord::getLastName))
+                .containsExactly("Kenoby", "Master", "Dark");
+    }
+
+    @Test
+    @Order(2)
+    void should_reload_written_table_and_insert_with_plain_sql(DSLContext dsl) {
+        assertThat(dsl.selectFrom(JEDI).fetch(JediRecord::getLastName))
+                .containsExactly("Kenobi", "Master", "Dark");
+
+        dsl.execute("INSERT INTO LIGHT_SABER (OWNER, COLOR) VALUES ('Yoda', 'GREEN')");
+        assertThat(dsl.fetchCount(LIGHT_SABER)).isEqualTo(3);
+    }
+
+    @Test
+    @Order(3)
+    void should_reload_plain_sql_written_table(DSLContext dsl, DataSource ds) throws SQLException {
+        assertThat(dsl.fetchCount(LIGHT_SABER)).isEqualTo(2);
+
+        try (Connection conn = ds.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("UPDATE JEDI SET LAST_NAME = 'Skywalker' WHERE FIRST_NAME = 'Vader'");
+        }
+    }
+
+    @Test
+    @Order(4)
+    void should_not_reload_without_detected_write(DSLContext dsl) {
+        assertThat(dsl.selectFrom(JEDI).fetch(JediRecord::getLastName))
+                .containsExactly("Kenobi", "Master", "Skywalker");
+    }
+}
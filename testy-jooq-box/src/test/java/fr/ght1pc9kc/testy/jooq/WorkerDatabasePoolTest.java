@@ -0,0 +1,20 @@
+package fr.ght1pc9kc.testy.jooq;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WorkerDatabasePoolTest {
+
+    @Test
+    void should_lease_distinct_databases() {
+        String first = WorkerDatabasePool.lease("dummy_pool_unit");
+        String second = WorkerDatabasePool.lease("dummy_pool_unit");
+
+        assertThat(first).startsWith("dummy_pool_unit_w");
+        assertThat(second).startsWith("dummy_pool_unit_w").isNotEqualTo(first);
+
+        WorkerDatabasePool.release("dummy_pool_unit", second);
+        assertThat(WorkerDatabasePool.lease("dummy_pool_unit")).isEqualTo(second);
+    }
+}
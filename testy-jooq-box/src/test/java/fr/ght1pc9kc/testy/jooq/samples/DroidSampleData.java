@@ -0,0 +1,60 @@
+package fr.ght1pc9kc.testy.jooq.samples;
+
+import fr.ght1pc9kc.testy.jooq.model.RelationalDataSet;
+import org.jooq.Identity;
+import org.jooq.TableField;
+import org.jooq.UniqueKey;
+import org.jooq.impl.DSL;
+import org.jooq.impl.Internal;
+import org.jooq.impl.SQLDataType;
+import org.jooq.impl.TableImpl;
+import org.jooq.impl.UpdatableRecordImpl;
+
+import java.util.List;
+
+/**
+ * Data set of a table whose primary key is generated by the database, the records leave it unset.
+ */
+public class DroidSampleData implements RelationalDataSet<DroidSampleData.DroidRecord> {
+    public static final DroidTable DROID = new DroidTable();
+    public static final DroidSampleData DATASET = new DroidSampleData();
+
+    @Override
+    public List<DroidRecord> records() {
+        return List.of(
+                DROID.newRecord().with(DROID.NAME, "R2-D2"),
+                DROID.newRecord().with(DROID.NAME, "C-3PO"));
+    }
+
+    public static final class DroidTable extends TableImpl<DroidRecord> {
+        public final TableField<DroidRecord, Long> ID = createField(DSL.name("ID"),
+                SQLDataType.BIGINT.nullable(false).identity(true), this, "");
+        public final TableField<DroidRecord, String> NAME = createField(DSL.name("NAME"),
+                SQLDataType.VARCHAR(50), this, "");
+
+        private DroidTable() {
+            super(DSL.name("DROID"), DSL.schema(DSL.name("PUBLIC")));
+        }
+
+        @Override
+        public Class<DroidRecord> getRecordType() {
+            return DroidRecord.class;
+        }
+
+        @Override
+        public Identity<DroidRecord, Long> getIdentity() {
+            return Internal.createIdentity(this, ID);
+        }
+
+        @Override
+        public UniqueKey<DroidRecord> getPrimaryKey() {
+            return Internal.createUniqueKey(this, DSL.name("PK_DROID"), ID);
+        }
+    }
+
+    public static final class DroidRecord extends UpdatableRecordImpl<DroidRecord> {
+        public DroidRecord() {
+            super(DROID);
+        }
+    }
+}
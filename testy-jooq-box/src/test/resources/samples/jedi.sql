@@ -0,0 +1,3 @@
+INSERT INTO JEDI (FIRST_NAME, LAST_NAME, FORCE_SIDE) VALUES ('Obiwan', 'Kenobi', 'LIGHT');
+INSERT INTO JEDI (FIRST_NAME, LAST_NAME, FORCE_SIDE) VALUES ('Yoda', 'Master', 'LIGHT');
+INSERT INTO JEDI (FIRST_NAME, LAST_NAME, FORCE_SIDE) VALUES ('Vader', 'Dark', 'OBSCUR');
@@ -0,0 +1,255 @@
+package fr.ght1pc9kc.testy.mongo;
+
+import com.fasterxml.jackson.core.Base64Variant;
+import com.fasterxml.jackson.core.JsonGenerationException;
+import com.fasterxml.jackson.core.ObjectCodec;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.base.GeneratorBase;
+import com.fasterxml.jackson.core.json.JsonWriteContext;
+import org.bson.BsonBinary;
+import org.bson.BsonWriter;
+import org.bson.codecs.Codec;
+import org.bson.codecs.EncoderContext;
+import org.bson.codecs.configuration.CodecRegistry;
+import org.bson.types.Decimal128;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Jackson generator writing the serialized objects directly to a {@link BsonWriter}, without building the
+ * intermediate {@code Map} of {@code ObjectMapper.convertValue}.
+ * <p>
+ * The values get the BSON types of the conversion through {@code Document}: integers and longs as {@code int32} and
+ * {@code int64}, floating point numbers as {@code double}, big numbers as {@code decimal}, binaries as
+ * {@code binData}. The embedded objects are written with the codec of their class. The top level field named as the
+ * identifier of the data set is written as {@code _id}, unless its value is {@code null}.
+ */
+final class BsonJsonGenerator extends GeneratorBase {
+    private static final String MONGO_ID_FIELD = "_id";
+
+    private final BsonWriter writer;
+    private final CodecRegistry codecRegistry;
+    private final String identifier;
+    private String pendingName;
+
+    BsonJsonGenerator(ObjectCodec codec, BsonWriter writer, CodecRegistry codecRegistry, String identifier) {
+        super(0, codec);
+        this.writer = writer;
+        this.codecRegistry = codecRegistry;
+        this.identifier = identifier;
+    }
+
+    /**
+     * Write the name of the field of the value being written, if the value is in an object.
+     *
+     * @param isNull {@code true} if the written value is {@code null}
+     */
+    private void writeName(String typeMsg, boolean isNull) throws JsonGenerationException {
+        _verifyValueWrite(typeMsg);
+        if (pendingName == null) {
+            return;
+        }
+        boolean isIdentifier = !isNull && _writeContext.getParent().inRoot() && pendingName.equals(identifier);
+        writer.writeName(isIdentifier ? MONGO_ID_FIELD : pendingName);
+        pendingName = null;
+    }
+
+    @Override
+    protected void _verifyValueWrite(String typeMsg) throws JsonGenerationException {
+        if (_writeContext.writeValue() == JsonWriteContext.STATUS_EXPECT_NAME) {
+            _reportError("Can not " + typeMsg + ", expecting field name");
+        }
+    }
+
+    @Override
+    public void writeStartArray() throws JsonGenerationException {
+        writeName("start an array", false);
+        _writeContext = _writeContext.createChildArrayContext();
+        writer.writeStartArray();
+    }
+
+    @Override
+    public void writeEndArray() throws JsonGenerationException {
+        if (!_writeContext.inArray()) {
+            _reportError("Current context not Array but " + _writeContext.typeDesc());
+        }
+        _writeContext = _writeContext.clearAndGetParent();
+        writer.writeEndArray();
+    }
+
+    @Override
+    public void writeStartObject() throws JsonGenerationException {
+        writeName("start an object", false);
+        _writeContext = _writeContext.createChildObjectContext();
+        writer.writeStartDocument();
+    }
+
+    @Override
+    public void writeEndObject() throws JsonGenerationException {
+        if (!_writeContext.inObject()) {
+            _reportError("Current context not Object but " + _writeContext.typeDesc());
+        }
+        _writeContext = _writeContext.clearAndGetParent();
+        writer.writeEndDocument();
+    }
+
+    @Override
+    public void writeFieldName(String name) throws IOException {
+        if (_writeContext.writeFieldName(name) == JsonWriteContext.STATUS_EXPECT_VALUE) {
+            _reportError("Can not write a field name, expecting a value");
+        }
+        pendingName = name;
+    }
+
+    @Override
+    public void writeFieldName(SerializableString name) throws IOException {
+        writeFieldName(name.getValue());
+    }
+
+    @Override
+    public void writeString(String text) throws JsonGenerationException {
+        if (text == null) {
+            writeNull();
+            return;
+        }
+        writeName("write a string", false);
+        writer.writeString(text);
+    }
+
+    @Override
+    public void writeString(char[] buffer, int offset, int len) throws JsonGenerationException {
+        writeString(new String(buffer, offset, len));
+    }
+
+    @Override
+    public void writeString(SerializableString text) throws JsonGenerationException {
+        writeString(text.getValue());
+    }
+
+    @Override
+    public void writeRawUTF8String(byte[] buffer, int offset, int len) throws JsonGenerationException {
+        writeUTF8String(buffer, offset, len);
+    }
+
+    @Override
+    public void writeUTF8String(byte[] buffer, int offset, int len) throws JsonGenerationException {
+        writeString(new String(buffer, offset, len, StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void writeRaw(String text) {
+        throw new UnsupportedOperationException("Raw values are not supported in BSON");
+    }
+
+    @Override
+    public void writeRaw(String text, int offset, int len) {
+        throw new UnsupportedOperationException("Raw values are not supported in BSON");
+    }
+
+    @Override
+    public void writeRaw(char[] text, int offset, int len) {
+        throw new UnsupportedOperationException("Raw values are not supported in BSON");
+    }
+
+    @Override
+    public void writeRaw(char c) {
+        throw new UnsupportedOperationException("Raw values are not supported in BSON");
+    }
+
+    @Override
+    public void writeBinary(Base64Variant bv, byte[] data, int offset, int len) throws JsonGenerationException {
+        if (data == null) {
+            writeNull();
+            return;
+        }
+        writeName("write a binary value", false);
+        writer.writeBinaryData(new BsonBinary(Arrays.copyOfRange(data, offset, offset + len)));
+    }
+
+    @Override
+    public int writeBinary(Base64Variant bv, InputStream data, int dataLength) {
+        throw new UnsupportedOperationException("Streamed binary values are not supported");
+    }
+
+    @Override
+    public void writeNumber(int v) throws JsonGenerationException {
+        writeName("write a number", false);
+        writer.writeInt32(v);
+    }
+
+    @Override
+    public void writeNumber(long v) throws JsonGenerationException {
+        writeName("write a number", false);
+        writer.writeInt64(v);
+    }
+
+    @Override
+    public void writeNumber(BigInteger v) throws JsonGenerationException {
+        writeNumber(v == null ? null : new BigDecimal(v));
+    }
+
+    @Override
+    public void writeNumber(double v) throws JsonGenerationException {
+        writeName("write a number", false);
+        writer.writeDouble(v);
+    }
+
+    @Override
+    public void writeNumber(float v) throws JsonGenerationException {
+        writeNumber((double) v);
+    }
+
+    @Override
+    public void writeNumber(BigDecimal v) throws JsonGenerationException {
+        if (v == null) {
+            writeNull();
+            return;
+        }
+        writeName("write a number", false);
+        writer.writeDecimal128(new Decimal128(v));
+    }
+
+    @Override
+    public void writeNumber(String encodedValue) throws JsonGenerationException {
+        writeNumber(encodedValue == null ? null : new BigDecimal(encodedValue));
+    }
+
+    @Override
+    public void writeBoolean(boolean state) throws JsonGenerationException {
+        writeName("write a boolean", false);
+        writer.writeBoolean(state);
+    }
+
+    @Override
+    public void writeNull() throws JsonGenerationException {
+        writeName("write a null", true);
+        writer.writeNull();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void writeEmbeddedObject(Object object) throws JsonGenerationException {
+        if (object == null) {
+            writeNull();
+            return;
+        }
+        writeName("write an embedded object", false);
+        Codec<Object> codec = (Codec<Object>) codecRegistry.get(object.getClass());
+        codec.encode(writer, object, EncoderContext.builder().build());
+    }
+
+    @Override
+    public void flush() {
+        writer.flush();
+    }
+
+    @Override
+    protected void _releaseBuffers() {
+        // No buffer, the BSON writer is closed by its owner
+    }
+}
@@ -0,0 +1,22 @@
+package fr.ght1pc9kc.testy.mongo;
+
+/**
+ * Strategy used by {@link WithMongoData} to restore the collections between tests.
+ */
+public enum MongoResetMode {
+
+    /**
+     * Drop each collection and insert its documents, one collection after the other.
+     * <p>
+     * The indexes created by the tested code are dropped with the collection.
+     */
+    DROP_INSERT,
+
+    /**
+     * Delete all the documents of each collection and insert them again with an unordered bulk insert.
+     * <p>
+     * All the collections are reset concurrently, the reset takes about the time of the largest one. The collections
+     * and their indexes are kept.
+     */
+    DELETE_INSERT
+}
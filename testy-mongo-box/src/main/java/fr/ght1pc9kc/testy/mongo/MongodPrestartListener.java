@@ -0,0 +1,21 @@
+package fr.ght1pc9kc.testy.mongo;
+
+import org.junit.platform.launcher.LauncherSession;
+import org.junit.platform.launcher.LauncherSessionListener;
+
+/**
+ * Start the shared mongod process in background as soon as the JUnit launcher session is opened, during the test
+ * discovery, instead of at the first test class using {@link WithEmbeddedMongo}.
+ * <p>
+ * Not registered by default, to not start a process in the sessions without Mongo tests. Register it in the file
+ * {@code src/test/resources/META-INF/services/org.junit.platform.launcher.LauncherSessionListener}:
+ * <pre><code>
+ * fr.ght1pc9kc.testy.mongo.MongodPrestartListener
+ * </code></pre>
+ */
+public class MongodPrestartListener implements LauncherSessionListener {
+    @Override
+    public void launcherSessionOpened(LauncherSession session) {
+        SharedMongod.prestart();
+    }
+}
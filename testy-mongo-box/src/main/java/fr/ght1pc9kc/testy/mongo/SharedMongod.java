@@ -0,0 +1,139 @@
+package fr.ght1pc9kc.testy.mongo;
+
+import com.mongodb.reactivestreams.client.MongoClient;
+import com.mongodb.reactivestreams.client.MongoClients;
+import de.flapdoodle.embed.mongo.distribution.Version;
+import de.flapdoodle.embed.mongo.transitions.Mongod;
+import de.flapdoodle.embed.mongo.transitions.RunningMongodProcess;
+import de.flapdoodle.embed.process.io.ProcessOutput;
+import de.flapdoodle.reverse.transitions.Start;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * The mongod process shared by all the {@link WithEmbeddedMongo} of the JVM, with its client.
+ * <p>
+ * Kept in the root {@link ExtensionContext} store, so JUnit stops the process once all the tests are run. The test
+ * classes each use their own database on it.
+ * <p>
+ * The process is started in background by {@link #prestart()}, as soon as a {@link WithEmbeddedMongo} is created or
+ * the launcher session is opened with {@link MongodPrestartListener}, and the first test class only waits for it.
+ * A process started but never used is stopped with the JVM.
+ */
+@Slf4j
+final class SharedMongod implements ExtensionContext.Store.CloseableResource {
+    private static final AtomicReference<CompletableFuture<SharedMongod>> STARTING = new AtomicReference<>();
+
+    private final RunningMongodProcess process;
+    @Getter
+    private final MongoClient client;
+    @Getter
+    private final Duration startupTime;
+    private final AtomicInteger users = new AtomicInteger();
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    private SharedMongod(RunningMongodProcess process, Duration startupTime) {
+        this.process = process;
+        this.startupTime = startupTime;
+        this.client = MongoClients.create(String.format("mongodb://%s:%d",
+                process.getServerAddress().getHost(),
+                process.getServerAddress().getPort()));
+    }
+
+    /**
+     * Start the process in a background thread, if not already started.
+     *
+     * @return The started process, once ready
+     */
+    static CompletableFuture<SharedMongod> prestart() {
+        CompletableFuture<SharedMongod> starting = STARTING.get();
+        if (starting != null) {
+            return starting;
+        }
+        CompletableFuture<SharedMongod> created = new CompletableFuture<>();
+        if (!STARTING.compareAndSet(null, created)) {
+            return STARTING.get();
+        }
+        Thread thread = new Thread(() -> {
+            try {
+                created.complete(start());
+            } catch (Throwable e) {
+                created.completeExceptionally(e);
+            }
+        }, "testy-mongod-start");
+        thread.setDaemon(true);
+        thread.start();
+        return created;
+    }
+
+    /**
+     * Wait for the process started by {@link #prestart()}, and report how long its startup blocked the tests.
+     *
+     * @return The started process
+     */
+    static SharedMongod await() {
+        long begin = System.nanoTime();
+        SharedMongod mongod;
+        try {
+            mongod = prestart().join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException re) {
+                throw re;
+            }
+            throw e;
+        }
+        Duration waited = Duration.ofNanos(System.nanoTime() - begin);
+        log.info("mongod started in {} ms, {} ms waited by the tests",
+                mongod.startupTime.toMillis(), waited.toMillis());
+        return mongod;
+    }
+
+    private static SharedMongod start() {
+        long begin = System.nanoTime();
+        RunningMongodProcess process = Mongod.instance()
+                .withProcessOutput(Start.to(ProcessOutput.class)
+                        .initializedWith(ProcessOutput.named("Slf4j Logger", log)))
+                .start(Version.Main.V6_0).current();
+        SharedMongod mongod = new SharedMongod(process, Duration.ofNanos(System.nanoTime() - begin));
+        Runtime.getRuntime().addShutdownHook(new Thread(mongod::close, "testy-mongod-stop"));
+        log.debug("mongod started on {}", process.getServerAddress());
+        return mongod;
+    }
+
+    /**
+     * Count a test class using the process.
+     */
+    void acquire() {
+        users.incrementAndGet();
+    }
+
+    /**
+     * Count a test class no longer using the process. The process is kept for the next test classes until
+     * {@link #close()}.
+     */
+    void release() {
+        users.decrementAndGet();
+    }
+
+    @Override
+    public void close() {
+        if (!closed.compareAndSet(false, true)) {
+            return;
+        }
+        // A new session of the same JVM starts a new process
+        STARTING.updateAndGet(f -> (f != null && f.getNow(null) == this) ? null : f);
+        if (users.get() > 0) {
+            log.warn("mongod stopped while used by {} test class(es)", users.get());
+        }
+        client.close();
+        process.stop();
+    }
+}
@@ -1,12 +1,6 @@
 package fr.ght1pc9kc.testy.mongo;
 
 import com.mongodb.reactivestreams.client.MongoClient;
-import com.mongodb.reactivestreams.client.MongoClients;
-import de.flapdoodle.embed.mongo.distribution.Version;
-import de.flapdoodle.embed.mongo.transitions.Mongod;
-import de.flapdoodle.embed.mongo.transitions.RunningMongodProcess;
-import de.flapdoodle.embed.process.io.ProcessOutput;
-import de.flapdoodle.reverse.transitions.Start;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.extension.AfterAllCallback;
@@ -20,8 +14,8 @@ import org.junit.jupiter.api.extension.ParameterResolver;
 import org.springframework.data.mongodb.ReactiveMongoDatabaseFactory;
 import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
 import org.springframework.data.mongodb.core.SimpleReactiveMongoDatabaseFactory;
+import reactor.core.publisher.Mono;
 
-import java.io.IOException;
 import java.lang.reflect.Parameter;
 import java.util.UUID;
 import java.util.concurrent.atomic.AtomicReference;
@@ -32,6 +26,13 @@ import java.util.concurrent.atomic.AtomicReference;
  * The flapdoodle download the expected version of Mongo DB in <code>~/.embedmongo</code> and
  * run a database for the test.
  * </p><p>
+ * A single mongod process is started for the whole JVM and stopped once all the tests are run. Each test class uses
+ * its own database on it, dropped after the class. Test classes running concurrently must use distinct database
+ * names, which is the case of the default random name.
+ * </p><p>
+ * The process starts in background when the extension is created, {@code beforeAll} only waits for it. Register
+ * {@link MongodPrestartListener} to start it with the launcher session.
+ * </p><p>
  * From this database, an async {@link MongoClient} is created and a Spring {@link ReactiveMongoDatabaseFactory} wrap it.
  * </p>
  *
@@ -42,7 +43,7 @@ public class WithEmbeddedMongo implements BeforeAllCallback, AfterAllCallback, P
     private static final Namespace NAMESPACE = Namespace.create(WithEmbeddedMongo.class);
 
     public static final String P_MONGO_DB_NAME = "mongoDbName";
-    private static final String P_MONGO_PROCESS = "mongoPocess";
+    private static final String P_MONGO_PROCESS = "mongoProcess";
     private static final String P_MONGO_CLIENT = "mongoClient";
     private static final String P_MONGO_FACTORY = "reactiveMongoFactory";
     private static final String P_MONGO_TEMPLATE = "reactiveMongoTemplate";
@@ -58,6 +59,7 @@ public class WithEmbeddedMongo implements BeforeAllCallback, AfterAllCallback, P
     private WithEmbeddedMongo(String databaseName) {
         this.databaseName = databaseName;
         this.atomicMongoFactory = new AtomicReference<>();
+        SharedMongod.prestart();
     }
 
     /**
@@ -79,27 +81,19 @@ public class WithEmbeddedMongo implements BeforeAllCallback, AfterAllCallback, P
     }
 
     @Override
-    public void beforeAll(ExtensionContext context) throws IOException {
-
-        RunningMongodProcess process = Mongod.instance()
-                .withProcessOutput(Start.to(ProcessOutput.class)
-                        .initializedWith(ProcessOutput.named("Slf4j Logger", log)))
-                .start(Version.Main.V6_0).current();
-
-        MongoClient mongo = MongoClients.create(String.format("mongodb://%s:%d/%s",
-                process.getServerAddress().getHost(),
-                process.getServerAddress().getPort(),
-                databaseName));
+    public void beforeAll(ExtensionContext context) {
+        SharedMongod mongod = context.getRoot().getStore(NAMESPACE)
+                .getOrComputeIfAbsent(P_MONGO_PROCESS, k -> SharedMongod.await(), SharedMongod.class);
+        mongod.acquire();
 
+        MongoClient mongo = mongod.getClient();
         ReactiveMongoDatabaseFactory mongoFactory = new SimpleReactiveMongoDatabaseFactory(mongo, databaseName);
-        if (!this.atomicMongoFactory.compareAndSet(null, mongoFactory)) {
-            throw new IllegalStateException("Mongo factory already initialized ! Multiple Mongo factory not supported !");
-        }
+        this.atomicMongoFactory.set(mongoFactory);
         ReactiveMongoTemplate mongoTemplate = new ReactiveMongoTemplate(mongoFactory);
 
         Store store = getStore(context);
         store.put(P_MONGO_DB_NAME, databaseName);
-        store.put(P_MONGO_PROCESS, process);
+        store.put(P_MONGO_PROCESS, mongod);
         store.put(P_MONGO_CLIENT, mongo);
         store.put(P_MONGO_FACTORY, mongoFactory);
         store.put(P_MONGO_TEMPLATE, mongoTemplate);
@@ -108,14 +102,18 @@ public class WithEmbeddedMongo implements BeforeAllCallback, AfterAllCallback, P
     @Override
     public void afterAll(ExtensionContext context) {
         Store store = getStore(context);
-        MongoClient mongo = store.get(P_MONGO_CLIENT, MongoClient.class);
-        if (mongo != null) {
-            mongo.close();
+        SharedMongod mongod = store.remove(P_MONGO_PROCESS, SharedMongod.class);
+        if (mongod == null) {
+            return;
         }
-
-        RunningMongodProcess running = store.get(P_MONGO_PROCESS, RunningMongodProcess.class);
-        if (running != null) {
-            running.stop();
+        ReactiveMongoDatabaseFactory mongoFactory = store.get(P_MONGO_FACTORY, ReactiveMongoDatabaseFactory.class);
+        try {
+            mongoFactory.getMongoDatabase()
+                    .flatMap(db -> Mono.from(db.drop()))
+                    .block();
+        } finally {
+            this.atomicMongoFactory.compareAndSet(mongoFactory, null);
+            mongod.release();
         }
     }
 
@@ -1,8 +1,17 @@
 package fr.ght1pc9kc.testy.mongo;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.mongodb.client.model.InsertManyOptions;
+import com.mongodb.reactivestreams.client.MongoCollection;
 import fr.ght1pc9kc.testy.core.extensions.WithObjectMapper;
+import org.bson.BsonBinaryWriter;
 import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.Codec;
+import org.bson.codecs.configuration.CodecRegistry;
+import org.bson.io.BasicOutputBuffer;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.junit.jupiter.api.extension.BeforeAllCallback;
@@ -11,9 +20,12 @@ import org.junit.jupiter.api.extension.ExtensionContext;
 import org.junit.jupiter.api.extension.ParameterContext;
 import org.junit.jupiter.api.extension.ParameterResolver;
 import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import javax.inject.Named;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -95,41 +107,68 @@ import java.util.concurrent.atomic.AtomicBoolean;
  *      ...
  *  }
  * </code></pre>
+ *
+ * <p>The data sets are converted to BSON once per test class, at the first load, and the same encoded documents are
+ * inserted on each reset. The data sets must return the same documents on each call.</p>
+ *
+ * <p>With {@link WithMongoDataBuilder#enableDirectBsonEncoding()}, the objects are serialized by the
+ * {@code ObjectMapper} straight to BSON, without the intermediate {@code Document}. The mixins and modules of the
+ * mapper still apply.</p>
+ *
+ * <h2>Reset mode</h2>
+ * <p>By default, each collection is dropped and filled again before each test. With
+ * {@link MongoResetMode#DELETE_INSERT}, the documents are deleted and inserted again in all the collections
+ * concurrently, and the indexes created by the tested code are kept.</p>
+ *
+ * <pre><code>
+ * WithMongoData.builder(WITH_EMBEDDED_MONGO)
+ *         .addDataset(USER_COLLECTION, new UserDataSet())
+ *         .setResetMode(MongoResetMode.DELETE_INSERT)
+ *         .build();
+ * </code></pre>
  */
 public final class WithMongoData implements BeforeEachCallback, BeforeAllCallback, ParameterResolver {
     private static final String MONGO_ID_FIELD = "_id";
     private static final String P_TRACKER = "sampleTracker_";
+    private static final String P_DOCUMENTS = "sampleDocuments_";
 
     private final WithEmbeddedMongo wEmbeddedMongo;
     private final @Nullable WithObjectMapper wObjectMapper;
     private final Map<String, MongoDataSet<?>> dataSets;
+    private final MongoResetMode resetMode;
+    private final boolean directEncoding;
 
     private WithMongoData(WithEmbeddedMongo wEmbeddedMongo,
-                          Map<String, MongoDataSet<?>> dataSets) {
+                          Map<String, MongoDataSet<?>> dataSets,
+                          MongoResetMode resetMode, boolean directEncoding) {
         this.wEmbeddedMongo = wEmbeddedMongo;
         this.wObjectMapper = null;
         this.dataSets = dataSets;
+        this.resetMode = resetMode;
+        this.directEncoding = directEncoding;
     }
 
     private WithMongoData(WithEmbeddedMongo wEmbeddedMongo,
                           @NotNull WithObjectMapper wObjectMapper,
-                          Map<String, MongoDataSet<?>> dataSets) {
+                          Map<String, MongoDataSet<?>> dataSets,
+                          MongoResetMode resetMode, boolean directEncoding) {
         this.wEmbeddedMongo = wEmbeddedMongo;
         this.wObjectMapper = wObjectMapper;
         this.dataSets = dataSets;
+        this.resetMode = resetMode;
+        this.directEncoding = directEncoding;
     }
 
     @Override
     public void beforeAll(ExtensionContext context) {
         String dbName = wEmbeddedMongo.getDatabaseName();
         getStore(context).put(P_TRACKER + dbName, new Tracker());
+        getStore(context).put(P_DOCUMENTS + dbName,
+                encodeDataSets(context, wEmbeddedMongo.getMongoTemplate(context)));
     }
 
     @Override
     public void beforeEach(ExtensionContext context) {
-        final ObjectMapper objectMapper = Optional.ofNullable(this.wObjectMapper)
-                .map(wom -> wom.getObjectMapper(context))
-                .orElseGet(ObjectMapper::new);
         final ReactiveMongoTemplate mongoTemplate = this.wEmbeddedMongo.getMongoTemplate(context);
         final Tracker tracker = getStore(context).get(P_TRACKER + this.wEmbeddedMongo.getDatabaseName(), Tracker.class);
 
@@ -139,10 +178,74 @@ public final class WithMongoData implements BeforeEachCallback, BeforeAllCallbac
             return;
         }
 
-        dataSets.forEach((collection, dataSet) -> {
-            mongoTemplate.dropCollection(collection).block();
-            fillCollection(mongoTemplate, objectMapper, collection, dataSet);
-        });
+        final Map<String, List<RawBsonDocument>> documents = getEncodedDocuments(context);
+        if (resetMode == MongoResetMode.DELETE_INSERT) {
+            resetCollections(mongoTemplate, documents);
+            return;
+        }
+        InsertManyOptions ordered = new InsertManyOptions();
+        documents.forEach((collection, encoded) -> mongoTemplate.dropCollection(collection)
+                .then(mongoTemplate.getCollection(collection))
+                .flatMap(c -> insertDocuments(c, encoded, ordered))
+                .block());
+    }
+
+    /**
+     * Delete the documents of all the collections and insert them again, all the collections in flight concurrently.
+     */
+    private void resetCollections(ReactiveMongoTemplate mongoTemplate, Map<String, List<RawBsonDocument>> documents) {
+        InsertManyOptions unordered = new InsertManyOptions().ordered(false);
+        Flux.merge(documents.entrySet().stream()
+                        .map(e -> mongoTemplate.getCollection(e.getKey())
+                                .flatMap(collection -> Mono.from(collection.deleteMany(new Document()))
+                                        .then(insertDocuments(collection, e.getValue(), unordered))))
+                        .toList())
+                .then()
+                .block();
+    }
+
+    private static Mono<Void> insertDocuments(
+            MongoCollection<Document> collection, List<RawBsonDocument> documents, InsertManyOptions options) {
+        if (documents.isEmpty()) {
+            return Mono.empty();
+        }
+        return Mono.from(collection.withDocumentClass(RawBsonDocument.class).insertMany(documents, options)).then();
+    }
+
+    /**
+     * The documents of the data sets, encoded once for the test class in {@link #beforeAll(ExtensionContext)}.
+     */
+    @SuppressWarnings("unchecked")
+    private Map<String, List<RawBsonDocument>> getEncodedDocuments(ExtensionContext context) {
+        return getStore(context).get(P_DOCUMENTS + wEmbeddedMongo.getDatabaseName(), Map.class);
+    }
+
+    private Map<String, List<RawBsonDocument>> encodeDataSets(
+            ExtensionContext context, ReactiveMongoTemplate mongoTemplate) {
+        final ObjectMapper objectMapper = Optional.ofNullable(this.wObjectMapper)
+                .map(wom -> wom.getObjectMapper(context))
+                .orElseGet(ObjectMapper::new);
+        final Map<String, List<RawBsonDocument>> encoded = new HashMap<>();
+        dataSets.forEach((collection, dataSet) -> encoded.put(collection, directEncoding
+                ? encodeDirect(objectMapper, mongoTemplate, dataSet)
+                : encode(objectMapper, mongoTemplate, dataSet)));
+        return Map.copyOf(encoded);
+    }
+
+    /**
+     * Convert the objects of a data set to immutable BSON documents.
+     *
+     * @param objectMapper  The mapper converting the objects to documents
+     * @param mongoTemplate The template whose converter and codecs encode the documents
+     * @param dataSet       The data set
+     * @return The encoded documents, in the order of the data set
+     */
+    static List<RawBsonDocument> encode(
+            ObjectMapper objectMapper, ReactiveMongoTemplate mongoTemplate, MongoDataSet<?> dataSet) {
+        final Codec<Document> codec = mongoTemplate.getMongoDatabaseFactory().getCodecRegistry().get(Document.class);
+        return toDocuments(objectMapper, dataSet).stream()
+                .map(doc -> encodeDocument(mongoTemplate, codec, doc))
+                .toList();
     }
 
     @Override
@@ -174,8 +277,45 @@ public final class WithMongoData implements BeforeEachCallback, BeforeAllCallbac
         return context.getStore(ExtensionContext.Namespace.create(getClass().getName(), dbName));
     }
 
-    private void fillCollection(ReactiveMongoTemplate mongoDb, ObjectMapper objectMapper, String collectionName, MongoDataSet<?> dataSet) {
-        final List<Document> toInsert = dataSet.documents().stream()
+    /**
+     * Serialize the objects of a data set straight to BSON with the {@link BsonJsonGenerator}. The instances of
+     * {@link Document} are encoded as by {@link #encode(ObjectMapper, ReactiveMongoTemplate, MongoDataSet)}.
+     *
+     * @param objectMapper  The mapper serializing the objects
+     * @param mongoTemplate The template whose converter and codecs encode the documents
+     * @param dataSet       The data set
+     * @return The encoded documents, in the order of the data set
+     */
+    static List<RawBsonDocument> encodeDirect(
+            ObjectMapper objectMapper, ReactiveMongoTemplate mongoTemplate, MongoDataSet<?> dataSet) {
+        final CodecRegistry codecRegistry = mongoTemplate.getMongoDatabaseFactory().getCodecRegistry();
+        final Codec<Document> codec = codecRegistry.get(Document.class);
+        final var objectWriter = objectMapper.writer().without(SerializationFeature.WRAP_ROOT_VALUE);
+        return dataSet.documents().stream()
+                .map(o -> {
+                    if (o instanceof Document document) {
+                        return encodeDocument(mongoTemplate, codec, document);
+                    }
+                    BasicOutputBuffer buffer = new BasicOutputBuffer();
+                    try (BsonBinaryWriter writer = new BsonBinaryWriter(buffer);
+                         JsonGenerator generator = new BsonJsonGenerator(
+                                 objectMapper, writer, codecRegistry, dataSet.identifier())) {
+                        objectWriter.writeValue(generator, o);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    return new RawBsonDocument(buffer.toByteArray());
+                }).toList();
+    }
+
+    private static RawBsonDocument encodeDocument(
+            ReactiveMongoTemplate mongoTemplate, Codec<Document> codec, Document document) {
+        // Same conversions of the values as an insert through the template
+        return new RawBsonDocument((Document) mongoTemplate.getConverter().convertToMongoType(document), codec);
+    }
+
+    private static List<Document> toDocuments(ObjectMapper objectMapper, MongoDataSet<?> dataSet) {
+        return dataSet.documents().stream()
                 .map(o -> {
                     if (o instanceof Document document) {
                         return document;
@@ -188,8 +328,6 @@ public final class WithMongoData implements BeforeEachCallback, BeforeAllCallbac
                     }
                     return doc;
                 }).toList();
-
-        mongoDb.insertAll(Mono.just(toInsert), collectionName).blockLast();
     }
 
     /**
@@ -211,6 +349,8 @@ public final class WithMongoData implements BeforeEachCallback, BeforeAllCallbac
         @Nullable
         private WithObjectMapper wObjectMapper;
         private final Map<String, MongoDataSet<?>> dataSetsBuilder = new HashMap<>();
+        private MongoResetMode resetMode = MongoResetMode.DROP_INSERT;
+        private boolean directEncoding = false;
 
         private WithMongoDataBuilder(WithEmbeddedMongo wEmbeddedMongo) {
             this.wEmbeddedMongo = wEmbeddedMongo;
@@ -239,6 +379,29 @@ public final class WithMongoData implements BeforeEachCallback, BeforeAllCallbac
             return this;
         }
 
+        /**
+         * Choose how the collections are restored before each test. {@link MongoResetMode#DROP_INSERT} by default.
+         *
+         * @param resetMode The reset mode.
+         * @return Builder instance.
+         */
+        public WithMongoDataBuilder setResetMode(MongoResetMode resetMode) {
+            this.resetMode = resetMode;
+            return this;
+        }
+
+        /**
+         * Serialize the objects of the data sets straight to BSON with the object mapper, instead of converting them
+         * to {@link Document} first. Faster and lighter for large data sets, the mixins and modules of the mapper
+         * still apply.
+         *
+         * @return Builder instance.
+         */
+        public WithMongoDataBuilder enableDirectBsonEncoding() {
+            this.directEncoding = true;
+            return this;
+        }
+
         /**
          * Build the extension.
          *
@@ -246,8 +409,10 @@ public final class WithMongoData implements BeforeEachCallback, BeforeAllCallbac
          */
         public WithMongoData build() {
             return Optional.ofNullable(wObjectMapper)
-                    .map(wom -> new WithMongoData(wEmbeddedMongo, wom, Map.copyOf(dataSetsBuilder)))
-                    .orElseGet(() -> new WithMongoData(wEmbeddedMongo, Map.copyOf(dataSetsBuilder)));
+                    .map(wom -> new WithMongoData(
+                            wEmbeddedMongo, wom, Map.copyOf(dataSetsBuilder), resetMode, directEncoding))
+                    .orElseGet(() -> new WithMongoData(
+                            wEmbeddedMongo, Map.copyOf(dataSetsBuilder), resetMode, directEncoding));
         }
     }
 
@@ -0,0 +1,71 @@
+package fr.ght1pc9kc.testy.mongo;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.reactivestreams.client.MongoClient;
+import com.mongodb.reactivestreams.client.MongoClients;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.RawBsonDocument;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.SimpleReactiveMongoDatabaseFactory;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compare the conversion of the data sets through {@code Document} with the direct BSON encoding.
+ * <p>
+ * Run with {@code mvn test -Dtesty.benchmark=true -Dtest=MongoEncodingBenchmarkTest}
+ */
+@Slf4j
+@EnabledIfSystemProperty(named = "testy.benchmark", matches = "true")
+class MongoEncodingBenchmarkTest {
+    private static final int SAMPLE_SIZE = 10_000;
+    private static final int WARMUP = 5;
+    private static final int ITERATIONS = 10;
+
+    @Test
+    void should_compare_document_and_direct_encoding() {
+        List<Jedi> jedis = IntStream.range(0, SAMPLE_SIZE)
+                .mapToObj(i -> new Jedi("jedi-" + i, "Name " + i, i, i * 1.5, List.of("tag-" + i % 10, "light"),
+                        Map.of("planet", "planet-" + i % 100, "rank", i % 5)))
+                .toList();
+        MongoDataSet<Jedi> dataSet = () -> jedis;
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        try (MongoClient mongoClient = MongoClients.create("mongodb://localhost:1")) {
+            ReactiveMongoTemplate mongoTemplate = new ReactiveMongoTemplate(
+                    new SimpleReactiveMongoDatabaseFactory(mongoClient, "dummy_benchmark"));
+
+            long documentNanos = measure(() -> WithMongoData.encode(objectMapper, mongoTemplate, dataSet));
+            long directNanos = measure(() -> WithMongoData.encodeDirect(objectMapper, mongoTemplate, dataSet));
+
+            log.info("{} objects: through Document {} us ({} obj/s), direct {} us ({} obj/s)",
+                    SAMPLE_SIZE,
+                    documentNanos / 1_000, Math.round(SAMPLE_SIZE * 1e9 / documentNanos),
+                    directNanos / 1_000, Math.round(SAMPLE_SIZE * 1e9 / directNanos));
+            assertThat(directNanos).isPositive();
+        }
+    }
+
+    private static long measure(Supplier<List<RawBsonDocument>> encoding) {
+        for (int i = 0; i < WARMUP; i++) {
+            encoding.get();
+        }
+        long nanos = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            long start = System.nanoTime();
+            assertThat(encoding.get()).hasSize(SAMPLE_SIZE);
+            nanos += System.nanoTime() - start;
+        }
+        return nanos / ITERATIONS;
+    }
+
+    public record Jedi(String id, String name, int age, double force, List<String> tags, Map<String, Object> origin) {
+    }
+}
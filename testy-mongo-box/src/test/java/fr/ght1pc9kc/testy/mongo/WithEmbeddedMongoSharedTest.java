@@ -0,0 +1,51 @@
+package fr.ght1pc9kc.testy.mongo;
+
+import com.mongodb.reactivestreams.client.MongoClient;
+import fr.ght1pc9kc.testy.core.extensions.ChainedExtension;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WithEmbeddedMongoSharedTest {
+
+    private static final WithEmbeddedMongo wFirstMongo = WithEmbeddedMongo.builder()
+            .setDatabaseName("dummy_shared_first")
+            .build();
+    private static final WithEmbeddedMongo wSecondMongo = WithEmbeddedMongo.builder()
+            .setDatabaseName("dummy_shared_second")
+            .build();
+
+    @RegisterExtension
+    @SuppressWarnings("unused")
+    static ChainedExtension chain = ChainedExtension
+            .outer(wFirstMongo)
+            .append(wSecondMongo)
+            .register();
+
+    @Test
+    void should_share_process_with_distinct_databases(MongoClient mongoClient) {
+        ReactiveMongoTemplate first = new ReactiveMongoTemplate(wFirstMongo.getMongoFactory());
+        ReactiveMongoTemplate second = new ReactiveMongoTemplate(wSecondMongo.getMongoFactory());
+
+        first.insert(new Document(Map.of("_id", "Obiwan")), "jedi").block();
+
+        assertThat(first.findAll(Document.class, "jedi").collectList().block()).hasSize(1);
+        assertThat(second.findAll(Document.class, "jedi").collectList().block()).isEmpty();
+
+        List<String> databases = Flux.from(mongoClient.listDatabaseNames()).collectList().block();
+        assertThat(databases).contains("dummy_shared_first");
+    }
+
+    @Test
+    void should_start_process_once() {
+        assertThat(SharedMongod.prestart()).isSameAs(SharedMongod.prestart());
+        assertThat(SharedMongod.await().getStartupTime()).isPositive();
+    }
+}
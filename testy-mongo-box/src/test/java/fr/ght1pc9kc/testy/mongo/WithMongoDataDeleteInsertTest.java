@@ -0,0 +1,70 @@
+package fr.ght1pc9kc.testy.mongo;
+
+import fr.ght1pc9kc.testy.core.extensions.ChainedExtension;
+import fr.ght1pc9kc.testy.core.extensions.WithObjectMapper;
+import fr.ght1pc9kc.testy.mongo.sample.ClazzDataSet;
+import fr.ght1pc9kc.testy.mongo.sample.DocumentDataSet;
+import org.bson.Document;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class WithMongoDataDeleteInsertTest {
+
+    private static final String DOCUMENT_COLLECTION = "documentCollection";
+    private static final String DUMMY_COLLECTION = "dummyCollection";
+
+    private static final WithEmbeddedMongo WITH_EMBEDDED_MONGO = WithEmbeddedMongo.builder().build();
+    private static final WithObjectMapper WITH_OBJECT_MAPPER = WithObjectMapper.builder().build();
+    private static final WithMongoData WITH_MONGO_DATA = WithMongoData.builder(WITH_EMBEDDED_MONGO)
+            .withObjectMapper(WITH_OBJECT_MAPPER)
+            .addDataset(DOCUMENT_COLLECTION, new DocumentDataSet())
+            .addDataset(DUMMY_COLLECTION, new ClazzDataSet())
+            .setResetMode(MongoResetMode.DELETE_INSERT)
+            .build();
+
+    @RegisterExtension
+    @SuppressWarnings("unused")
+    static final ChainedExtension chain = ChainedExtension.outer(WITH_EMBEDDED_MONGO)
+            .append(WITH_OBJECT_MAPPER)
+            .append(WITH_MONGO_DATA)
+            .register();
+
+    @Test
+    @Order(1)
+    void should_change_data_and_indexes(ReactiveMongoTemplate mongoTemplate) {
+        mongoTemplate.indexOps(DOCUMENT_COLLECTION).ensureIndex(new Index("name", Sort.Direction.ASC)).block();
+        mongoTemplate.insert(new Document(Map.of("_id", "Darth", "name", "Vader")), DUMMY_COLLECTION).block();
+
+        assertThat(mongoTemplate.findAll(Document.class, DUMMY_COLLECTION).collectList().block()).hasSize(3);
+    }
+
+    @Test
+    @Order(2)
+    void should_reset_data_and_keep_indexes(ReactiveMongoTemplate mongoTemplate) {
+        assertThat(mongoTemplate.findAll(Document.class, DOCUMENT_COLLECTION).collectList().block())
+                .containsExactlyInAnyOrder(
+                        DocumentDataSet.DOCUMENT_0,
+                        DocumentDataSet.DOCUMENT_1,
+                        DocumentDataSet.DOCUMENT_WITH_MONGO_ID);
+        assertThat(mongoTemplate.findAll(Document.class, DUMMY_COLLECTION).collectList().block())
+                .containsExactlyInAnyOrder(
+                        new Document(Map.of("_id", "Luke", "bar", "Skywalker")),
+                        new Document(Map.of("_id", "Obiwan", "bar", "Kenobi")));
+
+        List<IndexInfo> indexes = mongoTemplate.indexOps(DOCUMENT_COLLECTION).getIndexInfo().collectList().block();
+        assertThat(indexes).extracting(IndexInfo::getName).contains("name_1");
+    }
+}
@@ -0,0 +1,100 @@
+package fr.ght1pc9kc.testy.mongo;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.reactivestreams.client.MongoClient;
+import com.mongodb.reactivestreams.client.MongoClients;
+import fr.ght1pc9kc.testy.dummy.Dummy;
+import fr.ght1pc9kc.testy.mongo.sample.ClazzDataSet;
+import fr.ght1pc9kc.testy.mongo.sample.DocumentDataSet;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.SimpleReactiveMongoDatabaseFactory;
+
+import java.math.BigDecimal;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WithMongoDataEncodeTest {
+
+    // No connection is opened, the encoding only uses the converter and the codecs
+    private static MongoClient mongoClient;
+    private static ReactiveMongoTemplate mongoTemplate;
+
+    @BeforeAll
+    static void setUp() {
+        mongoClient = MongoClients.create("mongodb://localhost:1");
+        mongoTemplate = new ReactiveMongoTemplate(new SimpleReactiveMongoDatabaseFactory(mongoClient, "dummy"));
+    }
+
+    @AfterAll
+    static void tearDown() {
+        mongoClient.close();
+    }
+
+    @Test
+    void should_encode_objects_with_identifier() {
+        List<RawBsonDocument> actual = WithMongoData.encode(new ObjectMapper(), mongoTemplate, new ClazzDataSet());
+
+        assertThat(actual).extracting(raw -> Document.parse(raw.toJson())).containsExactly(
+                new Document(Map.of("_id", "Luke", "bar", "Skywalker")),
+                new Document(Map.of("_id", "Obiwan", "bar", "Kenobi")));
+    }
+
+    @Test
+    void should_encode_direct_as_documents() {
+        ObjectMapper objectMapper = new ObjectMapper().addMixIn(Dummy.class, DummyMixin.class);
+        MongoDataSet<Object> dataSet = () -> List.of(
+                new Dummy("Luke", "Skywalker"),
+                new Typed(),
+                DocumentDataSet.DOCUMENT_0);
+
+        List<RawBsonDocument> expected = WithMongoData.encode(objectMapper, mongoTemplate, dataSet);
+        List<RawBsonDocument> actual = WithMongoData.encodeDirect(objectMapper, mongoTemplate, dataSet);
+
+        assertThat(actual).extracting(raw -> Document.parse(raw.toJson()))
+                .containsExactlyElementsOf(expected.stream().map(raw -> Document.parse(raw.toJson())).toList());
+        assertThat(Document.parse(actual.get(0).toJson()))
+                .isEqualTo(new Document(Map.of("_id", "Luke", "name", "Skywalker")));
+    }
+
+    @Test
+    void should_encode_documents() {
+        List<RawBsonDocument> actual = WithMongoData.encode(new ObjectMapper(), mongoTemplate, new DocumentDataSet());
+
+        assertThat(actual).extracting(raw -> Document.parse(raw.toJson())).containsExactly(
+                DocumentDataSet.DOCUMENT_0,
+                DocumentDataSet.DOCUMENT_1,
+                DocumentDataSet.DOCUMENT_WITH_MONGO_ID);
+    }
+
+    @SuppressWarnings("unused")
+    abstract static class DummyMixin {
+        @JsonProperty("_id")
+        public String foo;
+        @JsonProperty("name")
+        public String bar;
+    }
+
+    @SuppressWarnings("unused")
+    public static class Typed {
+        public int count = 42;
+        public long big = 1L << 40;
+        public double ratio = 0.5;
+        public float half = 0.25f;
+        public BigDecimal price = new BigDecimal("12.50");
+        public boolean active = true;
+        public String missing = null;
+        public Date created = new Date(1_600_000_000_000L);
+        public byte[] payload = {1, 2, 3};
+        public List<Object> tags = List.of("jedi", 1, Map.of("side", "LIGHT"));
+        public Map<String, Object> nested = Map.of("level", 2, "names", List.of("a", "b"));
+    }
+}
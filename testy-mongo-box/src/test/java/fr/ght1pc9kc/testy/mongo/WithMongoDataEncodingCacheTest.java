@@ -0,0 +1,62 @@
+package fr.ght1pc9kc.testy.mongo;
+
+import fr.ght1pc9kc.testy.core.extensions.ChainedExtension;
+import fr.ght1pc9kc.testy.core.extensions.WithObjectMapper;
+import fr.ght1pc9kc.testy.dummy.Dummy;
+import org.bson.Document;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class WithMongoDataEncodingCacheTest {
+
+    private static final String DUMMY_COLLECTION = "dummyCollection";
+    private static final AtomicInteger DOCUMENTS_CALLS = new AtomicInteger();
+
+    private static final WithEmbeddedMongo WITH_EMBEDDED_MONGO = WithEmbeddedMongo.builder().build();
+    private static final WithObjectMapper WITH_OBJECT_MAPPER = WithObjectMapper.builder().build();
+    private static final WithMongoData WITH_MONGO_DATA = WithMongoData.builder(WITH_EMBEDDED_MONGO)
+            .withObjectMapper(WITH_OBJECT_MAPPER)
+            .addDataset(DUMMY_COLLECTION, () -> {
+                DOCUMENTS_CALLS.incrementAndGet();
+                return List.of(new Dummy("Luke", "Skywalker"), new Dummy("Obiwan", "Kenobi"));
+            })
+            .build();
+
+    @RegisterExtension
+    @SuppressWarnings("unused")
+    static final ChainedExtension chain = ChainedExtension.outer(WITH_EMBEDDED_MONGO)
+            .append(WITH_OBJECT_MAPPER)
+            .append(WITH_MONGO_DATA)
+            .register();
+
+    @Test
+    @Order(1)
+    void should_encode_data_sets_for_first_test(ReactiveMongoTemplate mongoTemplate) {
+        assertThat(mongoTemplate.findAll(Document.class, DUMMY_COLLECTION).collectList().block()).hasSize(2);
+        assertThat(DOCUMENTS_CALLS).hasValue(1);
+    }
+
+    @Test
+    @Order(2)
+    void should_reuse_encoded_data_sets(ReactiveMongoTemplate mongoTemplate) {
+        assertThat(mongoTemplate.findAll(Document.class, DUMMY_COLLECTION).collectList().block()).hasSize(2);
+        assertThat(DOCUMENTS_CALLS).hasValue(1);
+    }
+
+    @Test
+    @Order(3)
+    void should_still_reuse_encoded_data_sets(ReactiveMongoTemplate mongoTemplate) {
+        assertThat(mongoTemplate.findAll(Document.class, DUMMY_COLLECTION).collectList().block()).hasSize(2);
+        assertThat(DOCUMENTS_CALLS).hasValue(1);
+    }
+}